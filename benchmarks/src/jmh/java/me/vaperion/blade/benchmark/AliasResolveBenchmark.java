@@ -0,0 +1,76 @@
+package me.vaperion.blade.benchmark;
+
+import me.vaperion.blade.util.AliasTrie;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the alias trie used by the command resolver with the previous
+ * join-and-scan implementation, on a single base command with many subcommands.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AliasResolveBenchmark {
+
+    @Param({"10", "200", "1000"})
+    public int subCommands;
+
+    @Param({"2", "10"})
+    public int arguments;
+
+    private final AliasTrie<String> trie = new AliasTrie<>();
+    private final List<String[]> legacyTree = new ArrayList<>();
+
+    private String[] input;
+
+    @Setup
+    public void setup() {
+        for (int i = 0; i < subCommands; i++) {
+            // every subcommand has a short alias and a nested one, like "/base sub1" and "/base group1 sub1"
+            String[] aliases = {"base sub" + i, "base group" + (i % 10) + " sub" + i};
+
+            for (String alias : aliases) trie.insert(alias, alias);
+            legacyTree.add(aliases);
+        }
+
+        int target = subCommands - 1;
+        input = new String[3 + arguments];
+        input[0] = "base";
+        input[1] = "Group" + (target % 10);
+        input[2] = "SUB" + target;
+        for (int i = 0; i < arguments; i++) input[3 + i] = "argument" + i;
+    }
+
+    @Benchmark
+    public String trie() {
+        return trie.resolve(input[0], input, 1);
+    }
+
+    @Benchmark
+    public String legacy() {
+        String[] commandParts = Arrays.copyOf(input, input.length);
+
+        do {
+            String checking = String.join(" ", commandParts);
+
+            for (String[] aliases : legacyTree) {
+                for (String alias : aliases) {
+                    if (alias.equalsIgnoreCase(checking)) return alias;
+                }
+            }
+
+            commandParts = Arrays.copyOfRange(commandParts, 0, commandParts.length - 1);
+        } while (commandParts.length > 0);
+
+        return null;
+    }
+
+}
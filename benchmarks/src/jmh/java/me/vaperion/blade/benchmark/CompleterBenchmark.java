@@ -0,0 +1,69 @@
+package me.vaperion.blade.benchmark;
+
+import me.vaperion.blade.Blade;
+import me.vaperion.blade.benchmark.support.HeadlessPlatform;
+import me.vaperion.blade.benchmark.support.HeadlessSender;
+import me.vaperion.blade.benchmark.support.SyntheticCommands;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures {@link me.vaperion.blade.service.CommandCompleter#suggest(String, java.util.function.Supplier)}
+ * for an argument and a flag value, and suggesting the subcommands of the wide and the deep tree.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CompleterBenchmark {
+
+    @Param({"10", "1000", "10000"})
+    public int commands;
+
+    private Blade blade;
+    private HeadlessSender sender;
+
+    private String argument, flag, wideSubCommands, deepSubCommands;
+
+    @Setup
+    public void setup() {
+        blade = SyntheticCommands.register(HeadlessPlatform.createBlade(), commands);
+        sender = new HeadlessSender();
+
+        int target = commands - 1;
+        argument = SyntheticCommands.wideAlias(target) + " -s vaperion 1";
+        flag = SyntheticCommands.wideAlias(target) + " -r sp";
+        wideSubCommands = "wide sub" + (target / 10 == 0 ? "" : String.valueOf(target / 10));
+        deepSubCommands = "deep l" + (target % 10) + " m" + (target / 10 % 10) + " ";
+    }
+
+    @Benchmark
+    public List<String> argument() {
+        return blade.getCompleter().suggest(argument, () -> sender);
+    }
+
+    @Benchmark
+    public List<String> flag() {
+        return blade.getCompleter().suggest(flag, () -> sender);
+    }
+
+    @Benchmark
+    public List<String> wideSubCommands() {
+        List<String> suggestions = new ArrayList<>();
+        blade.getCompleter().suggestSubCommand(suggestions, wideSubCommands, () -> sender);
+        return suggestions;
+    }
+
+    @Benchmark
+    public List<String> deepSubCommands() {
+        List<String> suggestions = new ArrayList<>();
+        blade.getCompleter().suggestSubCommand(suggestions, deepSubCommands, () -> sender);
+        return suggestions;
+    }
+
+}
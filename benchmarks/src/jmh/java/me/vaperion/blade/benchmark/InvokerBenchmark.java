@@ -0,0 +1,62 @@
+package me.vaperion.blade.benchmark;
+
+import me.vaperion.blade.command.CommandInvoker;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the pre-bound method handle invoker with reflective {@link Method#invoke(Object, Object...)}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class InvokerBenchmark {
+
+    private Method method;
+    private Target instance;
+    private CommandInvoker invoker;
+
+    private Object[] arguments;
+
+    @Setup
+    public void setup(Blackhole blackhole) throws Exception {
+        instance = new Target(blackhole);
+        method = Target.class.getMethod("command", Object.class, String.class, int.class, boolean.class);
+        method.setAccessible(true);
+        invoker = new CommandInvoker(instance, method);
+
+        arguments = new Object[]{new Object(), "player", 64, true};
+    }
+
+    @Benchmark
+    public void methodHandle() throws Throwable {
+        invoker.invoke(arguments);
+    }
+
+    @Benchmark
+    public void reflection() throws Exception {
+        method.invoke(instance, arguments);
+    }
+
+    public static final class Target {
+        private final Blackhole blackhole;
+
+        private Target(Blackhole blackhole) {
+            this.blackhole = blackhole;
+        }
+
+        public void command(Object sender, String target, int amount, boolean silent) {
+            blackhole.consume(sender);
+            blackhole.consume(target);
+            blackhole.consume(amount);
+            blackhole.consume(silent);
+        }
+    }
+
+}
@@ -0,0 +1,111 @@
+package me.vaperion.blade.benchmark;
+
+import me.vaperion.blade.Blade;
+import me.vaperion.blade.benchmark.support.HeadlessPlatform;
+import me.vaperion.blade.benchmark.support.HeadlessSender;
+import me.vaperion.blade.benchmark.support.SyntheticCommands;
+import me.vaperion.blade.command.Command;
+import me.vaperion.blade.context.Context;
+import me.vaperion.blade.service.CommandParser;
+import me.vaperion.blade.service.CommandResolver;
+import me.vaperion.blade.util.CommandLine;
+import me.vaperion.blade.util.Tuple;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures {@link CommandParser#parseArguments(Command, Context, CommandLine, int)} with positional arguments only,
+ * with short and long flags, with quoted arguments and with a long {@code @Text} argument,
+ * and {@link CommandParser#combineQuotedArguments(List)}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ParserBenchmark {
+
+    private Blade blade;
+    private HeadlessSender sender;
+
+    private Input positional, flags, longFlags, quoted, text;
+    private List<String> quotedArguments;
+
+    @Setup
+    public void setup() {
+        blade = SyntheticCommands.register(HeadlessPlatform.createBlade(), 10);
+        sender = new HeadlessSender();
+
+        // command 1 splits on spaces, command 0 parses quotes
+        positional = input(SyntheticCommands.wideAlias(1) + " vaperion 16 hello");
+        flags = input(SyntheticCommands.wideAlias(1) + " -s -r spam vaperion 16 hello");
+        longFlags = input(SyntheticCommands.wideAlias(1) + " --reason=spam -s vaperion 16 hello");
+        quoted = input(SyntheticCommands.wideAlias(0) + " -r \"too much spam\" \"vaperion\" 16 \"hello there\"");
+
+        StringBuilder message = new StringBuilder(SyntheticCommands.wideAlias(1)).append(" vaperion 16");
+        for (int i = 0; i < 64; i++) message.append(" word").append(i);
+        text = input(message.toString());
+
+        quotedArguments = Arrays.asList("-r", "\"too", "much", "spam\"", "\"vaperion\"", "16", "\"hello", "there\"");
+    }
+
+    private Input input(String line) {
+        CommandLine commandLine = CommandLine.parse(line);
+        Tuple<Command, String> resolved = blade.getResolver().resolveCommand(commandLine);
+        return new Input(resolved.getLeft(), resolved.getRight(), commandLine, CommandResolver.countWords(resolved.getRight()));
+    }
+
+    private Object[] parse(Input input) {
+        Context context = new Context(blade, sender, input.alias, input.line, input.from);
+        return blade.getParser().parseArguments(input.command, context, input.line, input.from);
+    }
+
+    @Benchmark
+    public Object[] positional() {
+        return parse(positional);
+    }
+
+    @Benchmark
+    public Object[] flags() {
+        return parse(flags);
+    }
+
+    @Benchmark
+    public Object[] longFlags() {
+        return parse(longFlags);
+    }
+
+    @Benchmark
+    public Object[] quoted() {
+        return parse(quoted);
+    }
+
+    @Benchmark
+    public Object[] text() {
+        return parse(text);
+    }
+
+    @Benchmark
+    public List<String> combineQuotedArguments() {
+        return CommandParser.combineQuotedArguments(quotedArguments);
+    }
+
+    private static final class Input {
+        private final Command command;
+        private final String alias;
+        private final CommandLine line;
+        private final int from;
+
+        private Input(Command command, String alias, CommandLine line, int from) {
+            this.command = command;
+            this.alias = alias;
+            this.line = line;
+            this.from = from;
+        }
+    }
+
+}
@@ -0,0 +1,49 @@
+package me.vaperion.blade.benchmark;
+
+import me.vaperion.blade.Blade;
+import me.vaperion.blade.benchmark.support.HeadlessPlatform;
+import me.vaperion.blade.benchmark.support.SyntheticCommands;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures registering every synthetic command into a fresh instance, which resolves the argument provider
+ * of every parameter and builds the parse plans, the alias trie and the indexes.
+ * With {@code generated}, the classes are compiled with the annotation processor and registered from their dispatchers.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class RegistrationBenchmark {
+
+    @Param({"10", "1000", "10000"})
+    public int commands;
+
+    @Param({"false", "true"})
+    public boolean generated;
+
+    private List<Class<?>> classes;
+    private Blade blade;
+
+    @Setup(Level.Trial)
+    public void compile() {
+        classes = SyntheticCommands.compile(commands, generated);
+    }
+
+    @Setup(Level.Iteration)
+    public void createBlade() {
+        blade = HeadlessPlatform.createBlade();
+    }
+
+    @Benchmark
+    public Blade register() {
+        for (Class<?> clazz : classes) blade.register(clazz);
+        return blade;
+    }
+
+}
@@ -0,0 +1,56 @@
+package me.vaperion.blade.benchmark;
+
+import me.vaperion.blade.Blade;
+import me.vaperion.blade.benchmark.support.HeadlessPlatform;
+import me.vaperion.blade.benchmark.support.SyntheticCommands;
+import me.vaperion.blade.command.Command;
+import me.vaperion.blade.util.CommandLine;
+import me.vaperion.blade.util.Tuple;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures {@link me.vaperion.blade.service.CommandResolver#resolveCommand(CommandLine)} on a wide tree
+ * (every command below one base command) and a deep one (four levels of subcommands).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ResolverBenchmark {
+
+    @Param({"10", "1000", "10000"})
+    public int commands;
+
+    private Blade blade;
+    private CommandLine wide, deep, unknown;
+
+    @Setup
+    public void setup() {
+        blade = SyntheticCommands.register(HeadlessPlatform.createBlade(), commands);
+
+        int target = commands - 1;
+        wide = CommandLine.parse(SyntheticCommands.wideAlias(target).toUpperCase() + " vaperion 16 hello world");
+        deep = CommandLine.parse(SyntheticCommands.deepAlias(target) + " vaperion 16 hello world");
+        unknown = CommandLine.parse("wide missing vaperion 16 hello world");
+    }
+
+    @Benchmark
+    public Tuple<Command, String> wide() {
+        return blade.getResolver().resolveCommand(wide);
+    }
+
+    @Benchmark
+    public Tuple<Command, String> deep() {
+        return blade.getResolver().resolveCommand(deep);
+    }
+
+    @Benchmark
+    public Tuple<Command, String> unknown() {
+        return blade.getResolver().resolveCommand(unknown);
+    }
+
+}
@@ -0,0 +1,49 @@
+package me.vaperion.blade.benchmark;
+
+import me.vaperion.blade.util.CommandLine;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares extracting the {@code @Text} argument of a long {@code /mail send} line with the single pass tokenizer
+ * against the previous split, join and copy approach.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TokenizerBenchmark {
+
+    @Param({"8", "64"})
+    public int words;
+
+    private String line;
+
+    @Setup
+    public void setup() {
+        StringBuilder builder = new StringBuilder("mail send vaperion");
+        for (int i = 0; i < words; i++) builder.append(" word").append(i);
+        line = builder.toString();
+    }
+
+    @Benchmark
+    public String commandLine() {
+        CommandLine tokens = CommandLine.parse(line);
+        return tokens.get(2) + tokens.rest(3);
+    }
+
+    @Benchmark
+    public String legacy() {
+        String[] parts = line.split(" ");
+        String[] args = Arrays.copyOfRange(parts, 2, parts.length);
+        List<String> arguments = new ArrayList<>(Arrays.asList(args));
+        return arguments.get(0) + String.join(" ", arguments.subList(1, arguments.size()));
+    }
+
+}
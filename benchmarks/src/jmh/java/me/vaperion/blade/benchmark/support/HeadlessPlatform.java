@@ -0,0 +1,59 @@
+package me.vaperion.blade.benchmark.support;
+
+import me.vaperion.blade.Blade;
+import me.vaperion.blade.command.Command;
+import me.vaperion.blade.container.Container;
+import me.vaperion.blade.container.ContainerCreator;
+import me.vaperion.blade.platform.BladeConfiguration;
+import me.vaperion.blade.platform.BladePlatform;
+import me.vaperion.blade.platform.HelpGenerator;
+import me.vaperion.blade.platform.TabCompleter;
+
+/**
+ * A platform without a server, whose containers don't register anything.
+ */
+public final class HeadlessPlatform implements BladePlatform {
+
+    public static Blade createBlade() {
+        return Blade.forPlatform(new HeadlessPlatform()).build();
+    }
+
+    @Override
+    public Object getPluginInstance() {
+        return this;
+    }
+
+    @Override
+    public ContainerCreator<?> getContainerCreator() {
+        return HeadlessContainer::new;
+    }
+
+    @Override
+    public void configureBlade(Blade.Builder builder, BladeConfiguration configuration) {
+        configuration.setPluginInstance(this);
+        configuration.setFallbackPrefix("benchmark");
+        configuration.setHelpGenerator(new HelpGenerator.Default());
+        configuration.setTabCompleter(new TabCompleter.Default());
+    }
+
+    private static final class HeadlessContainer implements Container {
+        private final Blade blade;
+        private final Command baseCommand;
+
+        private HeadlessContainer(Blade blade, Command baseCommand, String alias) {
+            this.blade = blade;
+            this.baseCommand = baseCommand;
+        }
+
+        @Override
+        public Blade getBlade() {
+            return blade;
+        }
+
+        @Override
+        public Command getBaseCommand() {
+            return baseCommand;
+        }
+    }
+
+}
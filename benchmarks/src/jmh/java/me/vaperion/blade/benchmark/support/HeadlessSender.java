@@ -0,0 +1,38 @@
+package me.vaperion.blade.benchmark.support;
+
+import me.vaperion.blade.context.WrappedSender;
+
+/**
+ * A sender with every permission, which discards the messages sent to it.
+ */
+public final class HeadlessSender implements WrappedSender<Object> {
+
+    @Override
+    public Object getSender() {
+        return this;
+    }
+
+    @Override
+    public String getName() {
+        return "benchmark";
+    }
+
+    @Override
+    public boolean hasPermission(String permission) {
+        return true;
+    }
+
+    @Override
+    public void sendMessage(String message) {
+    }
+
+    @Override
+    public void sendMessage(String... messages) {
+    }
+
+    @Override
+    public <S> S parseAs(Class<S> clazz) {
+        return null;
+    }
+
+}
@@ -0,0 +1,130 @@
+package me.vaperion.blade.benchmark.support;
+
+import me.vaperion.blade.Blade;
+
+import javax.tools.JavaCompiler;
+import javax.tools.ToolProvider;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Generates and compiles command classes with a given amount of commands, so registration runs on real annotated methods.
+ * <p>
+ * Command {@code i} is registered as {@code /wide sub<i>} (one base command with every command below it) and as
+ * {@code /deep l<a> m<b> n<c> sub<i>} (a four level tree), takes two flags, a target, an optional amount and a message.
+ * Every tenth command parses quotes.
+ * <p>
+ * The classes are compiled without annotation processing unless a generated dispatcher is requested.
+ */
+public final class SyntheticCommands {
+
+    public static final String PACKAGE = "me.vaperion.blade.benchmark.generated";
+    private static final int COMMANDS_PER_CLASS = 100;
+
+    private static final Map<String, List<Class<?>>> COMPILED = new ConcurrentHashMap<>();
+
+    private SyntheticCommands() {
+    }
+
+    public static String wideAlias(int command) {
+        return "wide sub" + command;
+    }
+
+    public static String deepAlias(int command) {
+        return "deep l" + (command % 10) + " m" + (command / 10 % 10) + " n" + (command / 100 % 10) + " sub" + command;
+    }
+
+    public static boolean isQuoted(int command) {
+        return command % 10 == 0;
+    }
+
+    public static Blade register(Blade blade, int commands) {
+        for (Class<?> clazz : compile(commands)) blade.register(clazz);
+        return blade;
+    }
+
+    public static List<Class<?>> compile(int commands) {
+        return compile(commands, false);
+    }
+
+    public static List<Class<?>> compile(int commands, boolean dispatchers) {
+        return COMPILED.computeIfAbsent(commands + ":" + dispatchers, $ -> generate(commands, dispatchers));
+    }
+
+    private static List<Class<?>> generate(int commands, boolean dispatchers) {
+        JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        if (compiler == null) throw new IllegalStateException("The benchmarks have to run on a JDK to generate the synthetic commands.");
+
+        try {
+            Path root = Files.createTempDirectory("blade-benchmark");
+            Path directory = Files.createDirectories(root.resolve(PACKAGE.replace('.', File.separatorChar)));
+
+            List<String> arguments = new ArrayList<>();
+            arguments.add("-classpath");
+            arguments.add(System.getProperty("java.class.path"));
+            arguments.add("-parameters");
+            arguments.add("-nowarn");
+            arguments.add(dispatchers ? "-processor" : "-proc:none");
+            if (dispatchers) arguments.add("me.vaperion.blade.processor.CommandProcessor");
+            arguments.add("-d");
+            arguments.add(root.toString());
+
+            List<String> classNames = new ArrayList<>();
+            for (int start = 0; start < commands; start += COMMANDS_PER_CLASS) {
+                String className = "Commands" + commands + (dispatchers ? "G_" : "_") + start / COMMANDS_PER_CLASS;
+                Path file = directory.resolve(className + ".java");
+
+                Files.write(file, source(className, start, Math.min(commands, start + COMMANDS_PER_CLASS)).getBytes(StandardCharsets.UTF_8));
+                arguments.add(file.toString());
+                classNames.add(PACKAGE + "." + className);
+            }
+
+            ByteArrayOutputStream errors = new ByteArrayOutputStream();
+            if (compiler.run(null, null, errors, arguments.toArray(new String[0])) != 0)
+                throw new IllegalStateException("Couldn't compile the synthetic commands: " + errors.toString("UTF-8"));
+
+            ClassLoader loader = new URLClassLoader(new URL[]{root.toUri().toURL()}, SyntheticCommands.class.getClassLoader());
+            List<Class<?>> classes = new ArrayList<>();
+            for (String className : classNames) classes.add(Class.forName(className, true, loader));
+            return classes;
+        } catch (IOException | ClassNotFoundException ex) {
+            throw new IllegalStateException("Couldn't generate the synthetic commands.", ex);
+        }
+    }
+
+    private static String source(String className, int from, int to) {
+        StringBuilder source = new StringBuilder()
+              .append("package ").append(PACKAGE).append(";\n\n")
+              .append("import me.vaperion.blade.annotation.argument.*;\n")
+              .append("import me.vaperion.blade.annotation.command.*;\n\n")
+              .append("public final class ").append(className).append(" {\n");
+
+        for (int i = from; i < to; i++) {
+            source.append("    @Command({\"").append(wideAlias(i)).append("\", \"").append(deepAlias(i)).append("\"})\n")
+                  .append("    @Description(\"Synthetic command ").append(i).append("\")\n")
+                  .append("    @Permission(\"benchmark.command").append(i).append("\")\n");
+            if (isQuoted(i)) source.append("    @ParseQuotes\n");
+
+            source.append("    public static void command").append(i).append("(@Sender Object sender,")
+                  .append(" @Flag(value = 's', description = \"Silent\") boolean silent,")
+                  .append(" @Flag(value = 'r', longName = \"reason\") @Optional(\"none\") String reason,")
+                  .append(" @Name(\"target\") String target,")
+                  .append(" @Name(\"amount\") @Optional(\"1\") @Range(min = 1, max = 64) int amount,")
+                  .append(" @Name(\"message\") @Optional(\"none\") @Text String message) {\n")
+                  .append("    }\n\n");
+        }
+
+        return source.append("}\n").toString();
+    }
+
+}
@@ -7,6 +7,8 @@ import me.vaperion.blade.bukkit.argument.OfflinePlayerArgument;
 import me.vaperion.blade.bukkit.argument.PlayerArgument;
 import me.vaperion.blade.bukkit.container.BukkitContainer;
 import me.vaperion.blade.bukkit.platform.BukkitHelpGenerator;
+import me.vaperion.blade.bukkit.platform.BukkitPermissionListener;
+import me.vaperion.blade.bukkit.platform.BukkitPlayerIndex;
 import me.vaperion.blade.bukkit.platform.ProtocolLibTabCompleter;
 import me.vaperion.blade.container.ContainerCreator;
 import me.vaperion.blade.platform.BladeConfiguration;
@@ -42,8 +44,12 @@ public final class BladeBukkitPlatform implements BladePlatform {
         configuration.setHelpGenerator(new BukkitHelpGenerator());
         configuration.setTabCompleter(Bukkit.getPluginManager().isPluginEnabled("ProtocolLib") ? new ProtocolLibTabCompleter(plugin) : new TabCompleter.Default());
 
+        new BukkitPermissionListener(plugin, configuration.getPermissionCache());
+
+        BukkitPlayerIndex playerIndex = new BukkitPlayerIndex(plugin);
+
         Binder binder = new Binder(builder, true);
-        binder.bind(Player.class, new PlayerArgument());
-        binder.bind(OfflinePlayer.class, new OfflinePlayerArgument());
+        binder.bind(Player.class, new PlayerArgument(playerIndex.getIndex()));
+        binder.bind(OfflinePlayer.class, new OfflinePlayerArgument(playerIndex.getIndex()));
     }
 }
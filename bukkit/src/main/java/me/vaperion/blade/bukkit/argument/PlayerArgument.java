@@ -1,11 +1,13 @@
 package me.vaperion.blade.bukkit.argument;
 
+import lombok.RequiredArgsConstructor;
 import me.vaperion.blade.argument.Argument;
 import me.vaperion.blade.argument.Argument.Type;
 import me.vaperion.blade.argument.ArgumentProvider;
 import me.vaperion.blade.context.Context;
 import me.vaperion.blade.exception.BladeExitMessage;
 import me.vaperion.blade.exception.BladeUsageMessage;
+import me.vaperion.blade.util.NameIndex;
 import org.bukkit.Bukkit;
 import org.bukkit.entity.Player;
 import org.jetbrains.annotations.NotNull;
@@ -16,10 +18,20 @@ import java.util.List;
 import java.util.UUID;
 import java.util.regex.Pattern;
 
+@RequiredArgsConstructor
 public class PlayerArgument implements ArgumentProvider<Player> {
 
     public static final Pattern UUID_PATTERN = Pattern.compile("[0-9a-fA-F]{8}-[0-9a-fA-F]{4}-[34][0-9a-fA-F]{3}-[89ab][0-9a-fA-F]{3}-[0-9a-fA-F]{12}");
 
+    /**
+     * The index of online players, or null to look them up through the server.
+     */
+    @Nullable private final NameIndex<Player> playerIndex;
+
+    public PlayerArgument() {
+        this(null);
+    }
+
     @Nullable
     @Override
     public Player provide(@NotNull Context ctx, @NotNull Argument arg) throws BladeExitMessage {
@@ -42,8 +54,9 @@ public class PlayerArgument implements ArgumentProvider<Player> {
     @Override
     public List<String> suggest(@NotNull Context context, @NotNull Argument arg) throws BladeExitMessage {
         Player sender = context.sender().parseAs(Player.class);
-        List<String> completions = new ArrayList<>();
+        if (playerIndex != null) return playerIndex.suggest(arg.getString(), sender == null ? null : sender::canSee);
 
+        List<String> completions = new ArrayList<>();
         String input = arg.getString();
 
         for (Player player : Bukkit.getServer().getOnlinePlayers()) {
@@ -61,6 +74,7 @@ public class PlayerArgument implements ArgumentProvider<Player> {
     @Nullable
     private Player getPlayer(@NotNull String input) {
         if (isUUID(input)) return Bukkit.getPlayer(UUID.fromString(input));
+        if (playerIndex != null) return playerIndex.match(input);
         return Bukkit.getPlayer(input);
     }
 }
@@ -9,6 +9,12 @@ import me.vaperion.blade.container.ContainerCreator;
 import me.vaperion.blade.context.Context;
 import me.vaperion.blade.exception.BladeExitMessage;
 import me.vaperion.blade.exception.BladeUsageMessage;
+import me.vaperion.blade.metrics.CommandMetrics;
+import me.vaperion.blade.trace.Phase;
+import me.vaperion.blade.trace.Span;
+import me.vaperion.blade.trace.Tracing;
+import me.vaperion.blade.service.CommandResolver;
+import me.vaperion.blade.util.CommandLine;
 import me.vaperion.blade.util.Tuple;
 import net.md_5.bungee.api.chat.BaseComponent;
 import net.md_5.bungee.api.chat.TextComponent;
@@ -18,22 +24,42 @@ import org.bukkit.ChatColor;
 import org.bukkit.command.Command;
 import org.bukkit.command.CommandSender;
 import org.bukkit.command.SimpleCommandMap;
+import org.bukkit.plugin.Plugin;
 import org.bukkit.plugin.SimplePluginManager;
+import org.bukkit.scheduler.BukkitTask;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
 import java.lang.reflect.Field;
-import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
 import java.util.*;
-import java.util.stream.Collectors;
 
 @Getter
 public final class BukkitContainer extends Command implements Container {
 
-    public static final ContainerCreator<BukkitContainer> CREATOR = BukkitContainer::new;
+    public static final ContainerCreator<BukkitContainer> CREATOR = new ContainerCreator<BukkitContainer>() {
+        @Override
+        public @NotNull BukkitContainer create(@NotNull Blade blade, @NotNull me.vaperion.blade.command.Command command, @NotNull String alias) {
+            return new BukkitContainer(blade, command, alias);
+        }
+
+        @Override
+        public void commit(@NotNull Blade blade, @NotNull List<Container> containers) throws Exception {
+            registerAll(blade, containers);
+        }
+
+        @Override
+        public void release(@NotNull Blade blade, @NotNull List<Container> containers) throws Exception {
+            unregisterAll(blade, containers);
+        }
+    };
+
     private static final Field COMMAND_MAP, KNOWN_COMMANDS;
+    private static final Method SYNC_COMMANDS;
     private static final String UNKNOWN_COMMAND_MESSAGE;
 
+    @Nullable private static BukkitTask syncTask;
+
     static {
         Field mapField = null, commandsField = null;
         String unknownCommandMessage = ChatColor.WHITE + "Unknown command. Type \"/help\" for help.";
@@ -60,24 +86,54 @@ public final class BukkitContainer extends Command implements Container {
             ex.printStackTrace();
         }
 
+        Method syncMethod = null;
+        try {
+            // CraftServer#syncCommands rebuilds the command tree sent to clients, only present on 1.13+
+            syncMethod = Bukkit.getServer().getClass().getMethod("syncCommands");
+        } catch (Exception ignored) {
+        }
+
         COMMAND_MAP = mapField;
         KNOWN_COMMANDS = commandsField;
+        SYNC_COMMANDS = syncMethod;
         UNKNOWN_COMMAND_MESSAGE = unknownCommandMessage;
     }
 
     private final Blade blade;
-    private final me.vaperion.blade.command.Command baseCommand;
+    private me.vaperion.blade.command.Command baseCommand;
 
-    @SuppressWarnings("unchecked")
-    private BukkitContainer(@NotNull Blade blade, @NotNull me.vaperion.blade.command.Command command, @NotNull String alias) throws Exception {
+    private BukkitContainer(@NotNull Blade blade, @NotNull me.vaperion.blade.command.Command command, @NotNull String alias) {
         super(alias, command.getDescription(), "/" + alias, new ArrayList<>());
 
         this.blade = blade;
         this.baseCommand = command;
+    }
+
+    @Override
+    public void rebind(@NotNull me.vaperion.blade.command.Command baseCommand) {
+        this.baseCommand = baseCommand;
+        setDescription(baseCommand.getDescription());
+    }
 
+    /**
+     * Registers the containers of a registration batch with the command map, removing conflicting commands
+     * in a single pass when overriding is enabled, and schedules one command tree sync for the next tick.
+     */
+    @SuppressWarnings("unchecked")
+    private static void registerAll(@NotNull Blade blade, @NotNull List<Container> containers) throws Exception {
         SimplePluginManager simplePluginManager = (SimplePluginManager) Bukkit.getServer().getPluginManager();
         SimpleCommandMap simpleCommandMap = (SimpleCommandMap) COMMAND_MAP.get(simplePluginManager);
 
+        List<Command> commands = new ArrayList<>(containers.size());
+        Set<String> aliases = new HashSet<>();
+        for (Container container : containers) {
+            BukkitContainer bukkitContainer = (BukkitContainer) container;
+
+            commands.add(bukkitContainer);
+            aliases.add(bukkitContainer.getName().toLowerCase(Locale.ROOT));
+            Collections.addAll(aliases, bukkitContainer.baseCommand.getBaseCommands());
+        }
+
         if (blade.getConfiguration().isOverrideCommands()) {
             Map<String, Command> knownCommands = (Map<String, Command>) KNOWN_COMMANDS.get(simpleCommandMap);
             Iterator<Map.Entry<String, Command>> iterator = knownCommands.entrySet().iterator();
@@ -86,30 +142,75 @@ public final class BukkitContainer extends Command implements Container {
                 Map.Entry<String, Command> entry = iterator.next();
                 Command registeredCommand = entry.getValue();
 
-                if (doesBukkitCommandConflict(registeredCommand, alias, command)) {
+                if (doesBukkitCommandConflict(registeredCommand, aliases)) {
                     registeredCommand.unregister(simpleCommandMap);
                     iterator.remove();
                 }
             }
         }
 
-        simpleCommandMap.register(blade.getConfiguration().getFallbackPrefix(), this);
+        simpleCommandMap.registerAll(blade.getConfiguration().getFallbackPrefix(), commands);
+        scheduleSync(blade);
     }
 
-    private boolean doesBukkitCommandConflict(@NotNull Command bukkitCommand, @NotNull String alias, @NotNull me.vaperion.blade.command.Command command) {
+    /**
+     * Removes released containers from the command map (under their name, fallback prefix and aliases)
+     * in a single pass and schedules one command tree sync for the next tick.
+     */
+    @SuppressWarnings("unchecked")
+    private static void unregisterAll(@NotNull Blade blade, @NotNull List<Container> containers) throws Exception {
+        SimplePluginManager simplePluginManager = (SimplePluginManager) Bukkit.getServer().getPluginManager();
+        SimpleCommandMap simpleCommandMap = (SimpleCommandMap) COMMAND_MAP.get(simplePluginManager);
+
+        Set<Container> released = Collections.newSetFromMap(new IdentityHashMap<>());
+        released.addAll(containers);
+
+        Map<String, Command> knownCommands = (Map<String, Command>) KNOWN_COMMANDS.get(simpleCommandMap);
+        knownCommands.values().removeIf(released::contains);
+
+        for (Container container : containers) {
+            ((BukkitContainer) container).unregister(simpleCommandMap);
+        }
+
+        scheduleSync(blade);
+    }
+
+    private static boolean doesBukkitCommandConflict(@NotNull Command bukkitCommand, @NotNull Set<String> aliases) {
         if (bukkitCommand instanceof BukkitContainer) return false; // don't override our own commands
-        if (bukkitCommand.getName().equalsIgnoreCase(alias) || bukkitCommand.getAliases().stream().anyMatch(a -> a.equalsIgnoreCase(alias)))
-            return true;
-        for (String realAlias : command.getBaseCommands()) {
-            if (bukkitCommand.getName().equalsIgnoreCase(realAlias) || bukkitCommand.getAliases().stream().anyMatch(a -> a.equalsIgnoreCase(realAlias)))
-                return true;
+        if (aliases.contains(bukkitCommand.getName().toLowerCase(Locale.ROOT))) return true;
+        for (String alias : bukkitCommand.getAliases()) {
+            if (aliases.contains(alias.toLowerCase(Locale.ROOT))) return true;
         }
         return false;
     }
 
+    private static void scheduleSync(@NotNull Blade blade) {
+        if (SYNC_COMMANDS == null || !(blade.getConfiguration().getPluginInstance() instanceof Plugin)) return;
+
+        // A task that never ran (e.g. because its plugin was disabled) is no longer queued, so another one is scheduled
+        BukkitTask scheduled = syncTask;
+        if (scheduled != null && Bukkit.getScheduler().isQueued(scheduled.getTaskId())) return;
+
+        try {
+            syncTask = Bukkit.getScheduler().runTask((Plugin) blade.getConfiguration().getPluginInstance(), () -> {
+                syncTask = null;
+
+                try {
+                    SYNC_COMMANDS.invoke(Bukkit.getServer());
+                } catch (Exception ex) {
+                    System.err.println("Failed to sync the command tree with clients.");
+                    ex.printStackTrace();
+                }
+            });
+        } catch (Exception ignored) {
+            // the plugin is disabled, the server syncs commands itself when it enables plugins again
+            syncTask = null;
+        }
+    }
+
     @Nullable
-    private Tuple<me.vaperion.blade.command.Command, String> resolveCommand(@NotNull String[] arguments) throws BladeExitMessage {
-        return blade.getResolver().resolveCommand(arguments);
+    private Tuple<me.vaperion.blade.command.Command, String> resolveCommand(@NotNull CommandLine arguments, @Nullable Context context) throws BladeExitMessage {
+        return blade.getResolver().resolveCommand(arguments, context);
     }
 
     @NotNull
@@ -128,11 +229,28 @@ public final class BukkitContainer extends Command implements Container {
 
     private void sendUsageMessage(@NotNull Context context, @Nullable me.vaperion.blade.command.Command command) {
         if (command == null) return;
+
+        Span span = Tracing.begin(Phase.MESSAGE);
         command.getUsageMessage().ensureGetOrLoad(() -> new BukkitUsageMessage(command)).sendTo(context);
+        span.finish(context, command.getAliases()[0], false, "success", "usage");
+    }
+
+    private void invoke(@NotNull Context context, @NotNull me.vaperion.blade.command.Command command, @NotNull String alias, @NotNull Object[] arguments) throws Throwable {
+        Span span = Tracing.begin(Phase.INVOKE);
+        Throwable thrown = null;
+
+        try {
+            command.getInvoker().invoke(arguments);
+        } catch (Throwable t) {
+            thrown = t;
+            throw t;
+        } finally {
+            span.finish(context, alias, command.isAsync(), Tracing.outcomeOf(thrown), null);
+        }
     }
 
     private boolean hasPermission(@NotNull CommandSender sender, String[] args) throws BladeExitMessage {
-        Tuple<me.vaperion.blade.command.Command, String> command = resolveCommand(joinAliasToArgs(baseCommand.getAliases()[0], args));
+        Tuple<me.vaperion.blade.command.Command, String> command = resolveCommand(CommandLine.of(baseCommand.getAliases()[0], args), null);
         Context context = new Context(blade, new BukkitSender(sender), command == null ? "" : command.getRight(), args);
         return checkPermission(context, command == null ? null : command.getLeft()).getLeft();
     }
@@ -146,14 +264,6 @@ public final class BukkitContainer extends Command implements Container {
               command.isHidden() ? UNKNOWN_COMMAND_MESSAGE : command.getPermissionMessage());
     }
 
-    private String[] joinAliasToArgs(String alias, String[] args) {
-        String[] aliasParts = alias.split(" ");
-        String[] argsWithAlias = new String[args.length + aliasParts.length];
-        System.arraycopy(aliasParts, 0, argsWithAlias, 0, aliasParts.length);
-        System.arraycopy(args, 0, argsWithAlias, aliasParts.length, args.length);
-        return argsWithAlias;
-    }
-
     @Override
     public boolean testPermissionSilent(@NotNull CommandSender sender) {
         return hasPermission(sender, new String[0]);
@@ -164,18 +274,14 @@ public final class BukkitContainer extends Command implements Container {
         me.vaperion.blade.command.Command command = null;
         String resolvedAlias;
 
-        String[] joined = joinAliasToArgs(alias, args);
+        CommandLine line = CommandLine.of(alias, args);
         Context context = new Context(blade, new BukkitSender(sender), alias, args);
 
         try {
-            Tuple<me.vaperion.blade.command.Command, String> resolved = resolveCommand(joined);
+            Tuple<me.vaperion.blade.command.Command, String> resolved = resolveCommand(line, context);
             if (resolved == null) {
-                List<me.vaperion.blade.command.Command> availableCommands = blade.getCommands()
-                      .stream().filter(c -> Arrays.stream(c.getAliases()).anyMatch(a -> a.toLowerCase().startsWith(alias.toLowerCase(Locale.ROOT) + " ") || a.equalsIgnoreCase(alias)))
-                      .collect(Collectors.toList());
-
-                for (String line : blade.getConfiguration().getHelpGenerator().generate(context, availableCommands)) {
-                    sender.sendMessage(line);
+                for (String helpLine : blade.getHelpIndex().generateHelp(context, alias)) {
+                    sender.sendMessage(helpLine);
                 }
 
                 return true;
@@ -186,7 +292,7 @@ public final class BukkitContainer extends Command implements Container {
 
             command = resolved.getLeft();
             resolvedAlias = resolved.getRight();
-            int offset = Math.min(args.length, resolvedAlias.split(" ").length - 1);
+            int offset = Math.min(line.size(), CommandResolver.countWords(resolvedAlias));
 
             if (command.isHasSenderParameter() && !command.isWrappedSenderBased() && !command.isContextBased() && !command.getSenderType().isInstance(sender))
                 throw new BladeExitMessage("This command can only be executed by " + getSenderType(command.getSenderType()) + ".");
@@ -194,49 +300,44 @@ public final class BukkitContainer extends Command implements Container {
             final me.vaperion.blade.command.Command finalCommand = command;
             final String finalResolvedAlias = resolvedAlias;
 
-            if (finalCommand.getMethod() == null) {
-                throw new BladeExitMessage("The command " + finalResolvedAlias + " is a root command and cannot be executed.");
-            }
+            blade.getRateLimits().check(context, finalCommand);
+
+            CommandMetrics metrics = blade.getMetrics().get(finalCommand);
+            long submitted = System.nanoTime();
 
             Runnable runnable = () -> {
+                long started = System.nanoTime();
+                if (finalCommand.isAsync()) metrics.recordQueued(started - submitted);
+
                 try {
-                    List<Object> parsed;
+                    Object[] parsed;
                     if (finalCommand.isContextBased()) {
-                        parsed = Collections.singletonList(context);
+                        parsed = new Object[]{context};
                     } else {
-                        parsed = blade.getParser().parseArguments(finalCommand, context, Arrays.copyOfRange(args, offset, args.length));
+                        parsed = blade.getParser().parseArguments(finalCommand, context, line, offset);
                         if (finalCommand.isHasSenderParameter()) {
-                            if (finalCommand.isWrappedSenderBased()) parsed.add(0, context.sender());
-                            else parsed.add(0, sender);
+                            if (finalCommand.isWrappedSenderBased()) parsed[0] = context.sender();
+                            else parsed[0] = sender;
                         }
                     }
 
-                    finalCommand.getMethod().invoke(finalCommand.getInstance(), parsed.toArray(new Object[0]));
+                    invoke(context, finalCommand, finalResolvedAlias, parsed);
+                    metrics.recordExecution(System.nanoTime() - started);
                 } catch (BladeUsageMessage ex) {
+                    metrics.recordUsageFailure();
                     sendUsageMessage(context, finalCommand);
                 } catch (BladeExitMessage ex) {
+                    metrics.recordExitMessage();
                     sender.spigot().sendMessage(this.jsonOrPlain(ex.getMessage())); // Hoplite - send potentially parsed component
-                } catch (InvocationTargetException ex) {
-                    if (ex.getTargetException() != null) {
-                        if (ex.getTargetException() instanceof BladeUsageMessage) {
-                            sendUsageMessage(context, finalCommand);
-                            return;
-                        } else if (ex.getTargetException() instanceof BladeExitMessage) {
-                            sender.spigot().sendMessage(this.jsonOrPlain(ex.getTargetException().getMessage())); // Hoplite - send potentially parsed component
-                            return;
-                        }
-                    }
-
-                    ex.printStackTrace();
-                    sender.sendMessage(ChatColor.RED + "An exception was thrown while executing this command.");
                 } catch (Throwable t) {
+                    metrics.recordError();
                     t.printStackTrace();
                     sender.sendMessage(ChatColor.RED + "An exception was thrown while executing this command.");
                 }
             };
 
             if (command.isAsync()) {
-                blade.getConfiguration().getAsyncExecutor().accept(runnable);
+                blade.getConfiguration().executeAsync(finalCommand, context.sender(), runnable);
             } else {
                 long time = System.nanoTime();
                 runnable.run();
@@ -244,10 +345,9 @@ public final class BukkitContainer extends Command implements Container {
 
                 if (elapsed >= blade.getConfiguration().getExecutionTimeWarningThreshold()) {
                     Bukkit.getLogger().warning(String.format(
-                          "[Blade] Command '%s' (%s#%s) took %d milliseconds to execute!",
+                          "[Blade] Command '%s' (%s) took %d milliseconds to execute!",
                           finalResolvedAlias,
-                          finalCommand.getMethod().getDeclaringClass().getName(),
-                          finalCommand.getMethod().getName(),
+                          finalCommand.getDefinition().getQualifiedName(),
                           elapsed
                     ));
                 }
@@ -273,7 +373,8 @@ public final class BukkitContainer extends Command implements Container {
         if (!hasPermission(sender, args)) return Collections.emptyList();
 
         try {
-            Tuple<me.vaperion.blade.command.Command, String> resolved = resolveCommand(joinAliasToArgs(alias, args));
+            CommandLine line = CommandLine.of(alias, args);
+            Tuple<me.vaperion.blade.command.Command, String> resolved = resolveCommand(line, null);
             if (resolved == null) {
                 // maybe suggest subcommands?
                 return Collections.emptyList();
@@ -282,11 +383,8 @@ public final class BukkitContainer extends Command implements Container {
             me.vaperion.blade.command.Command command = resolved.getLeft();
             String foundAlias = resolved.getRight();
 
-            List<String> argList = new ArrayList<>(Arrays.asList(args));
-            if (foundAlias.split(" ").length > 1) argList.subList(0, foundAlias.split(" ").length - 1).clear();
-
-            if (argList.isEmpty()) argList.add("");
-            String[] actualArguments = argList.toArray(new String[0]);
+            int from = Math.min(line.size(), CommandResolver.countWords(foundAlias));
+            String[] actualArguments = from < line.size() ? line.toArray(from) : new String[]{""};
 
             Context context = new Context(blade, new BukkitSender(sender), foundAlias, actualArguments);
 
@@ -24,6 +24,17 @@ public final class BukkitSender implements WrappedSender<CommandSender> {
         return commandSender.getName();
     }
 
+    @NotNull
+    @Override
+    public Object getKey() {
+        return commandSender instanceof Player ? ((Player) commandSender).getUniqueId() : commandSender.getName();
+    }
+
+    @Override
+    public boolean isUniquelyKeyed() {
+        return commandSender instanceof Player || commandSender instanceof ConsoleCommandSender;
+    }
+
     @Override
     public boolean hasPermission(@NotNull String permissionNode) {
         if ("op".equals(permissionNode))
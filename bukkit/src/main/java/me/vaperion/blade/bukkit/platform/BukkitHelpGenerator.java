@@ -54,15 +54,11 @@ public class BukkitHelpGenerator implements HelpGenerator {
                 String help = ChatColor.stripColor(result.getHelpMessage().ensureGetOrLoad(() -> new BukkitUsageMessage(result, false)).toString());
                 return ChatColor.AQUA + " - " + ChatColor.YELLOW + help + (result.getDescription().isEmpty() ? "" : (" - " + ChatColor.GRAY + result.getDescription()));
             }
-        }.generatePage(commands, parsePage(context.argument(0)));
+        }.generatePage(commands, getPage(context));
     }
 
-    private int parsePage(String argument) {
-        if (argument == null) return 1;
-        try {
-            return Integer.parseInt(argument);
-        } catch (NumberFormatException e) {
-            return 1;
-        }
+    @Override
+    public boolean isCacheable() {
+        return true;
     }
 }
\ No newline at end of file
@@ -0,0 +1,36 @@
+package me.vaperion.blade.bukkit.platform;
+
+import me.vaperion.blade.service.PermissionCache;
+import org.bukkit.Bukkit;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.player.PlayerChangedWorldEvent;
+import org.bukkit.event.player.PlayerQuitEvent;
+import org.bukkit.plugin.Plugin;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Invalidates the cached permission decisions of players when their permissions may change.
+ * Permission plugins usually have their own events, which can call {@link me.vaperion.blade.Blade#invalidatePermissions(Object)}.
+ */
+public final class BukkitPermissionListener implements Listener {
+
+    private final PermissionCache cache;
+
+    public BukkitPermissionListener(@NotNull Plugin plugin, @NotNull PermissionCache cache) {
+        this.cache = cache;
+        Bukkit.getPluginManager().registerEvents(this, plugin);
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onWorldChange(PlayerChangedWorldEvent event) {
+        cache.invalidate(event.getPlayer().getUniqueId());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onQuit(PlayerQuitEvent event) {
+        cache.invalidate(event.getPlayer().getUniqueId());
+    }
+
+}
@@ -0,0 +1,40 @@
+package me.vaperion.blade.bukkit.platform;
+
+import lombok.Getter;
+import me.vaperion.blade.util.NameIndex;
+import org.bukkit.Bukkit;
+import org.bukkit.entity.Player;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.player.PlayerJoinEvent;
+import org.bukkit.event.player.PlayerQuitEvent;
+import org.bukkit.plugin.Plugin;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Keeps a {@link NameIndex} of the online players up to date, used by the player argument providers.
+ */
+public final class BukkitPlayerIndex implements Listener {
+
+    @Getter private final NameIndex<Player> index = new NameIndex<>();
+
+    public BukkitPlayerIndex(@NotNull Plugin plugin) {
+        for (Player player : Bukkit.getOnlinePlayers()) {
+            index.add(player.getName(), player);
+        }
+
+        Bukkit.getPluginManager().registerEvents(this, plugin);
+    }
+
+    @EventHandler(priority = EventPriority.LOWEST)
+    public void onJoin(PlayerJoinEvent event) {
+        index.add(event.getPlayer().getName(), event.getPlayer());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onQuit(PlayerQuitEvent event) {
+        index.remove(event.getPlayer().getName(), event.getPlayer());
+    }
+
+}
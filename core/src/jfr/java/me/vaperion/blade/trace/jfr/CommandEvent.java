@@ -0,0 +1,52 @@
+package me.vaperion.blade.trace.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.StackTrace;
+import me.vaperion.blade.context.Context;
+import me.vaperion.blade.trace.Span;
+
+/**
+ * The fields shared by the events of every dispatch phase.
+ */
+@Category({"Blade", "Commands"})
+@StackTrace(false)
+abstract class CommandEvent extends Event implements Span {
+
+    @Label("Alias")
+    String alias;
+
+    @Label("Sender Type")
+    String senderType;
+
+    @Label("Async")
+    @Description("Whether the phase ran on the async executor")
+    boolean async;
+
+    @Label("Outcome")
+    String outcome;
+
+    @Label("Detail")
+    String detail;
+
+    @Label("Dispatch Id")
+    @Description("Identifies the phases of the same dispatch, also across threads")
+    long dispatchId;
+
+    @Override
+    public void finish(Context context, String alias, boolean async, String outcome, String detail) {
+        end();
+        if (!shouldCommit()) return;
+
+        this.alias = alias != null ? alias : context != null ? context.alias() : null;
+        this.senderType = context == null ? null : context.sender().getSender().getClass().getSimpleName();
+        this.async = async;
+        this.outcome = outcome;
+        this.detail = detail;
+        this.dispatchId = context == null ? 0L : context.dispatchId();
+        commit();
+    }
+
+}
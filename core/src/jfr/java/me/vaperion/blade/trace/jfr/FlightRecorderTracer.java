@@ -0,0 +1,59 @@
+package me.vaperion.blade.trace.jfr;
+
+import me.vaperion.blade.trace.Phase;
+import me.vaperion.blade.trace.Span;
+import me.vaperion.blade.trace.Tracing.Tracer;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Loaded reflectively by {@link me.vaperion.blade.trace.Tracing}, only if Flight Recorder is available.
+ * <p>
+ * An event instance per phase is kept to check whether a recording is interested in it, which doesn't depend on the instance.
+ */
+public final class FlightRecorderTracer implements Tracer {
+
+    private static final ResolveEvent RESOLVE = new ResolveEvent();
+    private static final PermissionEvent PERMISSION = new PermissionEvent();
+    private static final ParseEvent PARSE = new ParseEvent();
+    private static final ProviderEvent PROVIDER = new ProviderEvent();
+    private static final InvokeEvent INVOKE = new InvokeEvent();
+    private static final SuggestEvent SUGGEST = new SuggestEvent();
+    private static final MessageEvent MESSAGE = new MessageEvent();
+
+    @NotNull
+    @Override
+    public Span begin(@NotNull Phase phase) {
+        CommandEvent event;
+        switch (phase) {
+            case RESOLVE:
+                event = RESOLVE.isEnabled() ? new ResolveEvent() : null;
+                break;
+            case PERMISSION:
+                event = PERMISSION.isEnabled() ? new PermissionEvent() : null;
+                break;
+            case PARSE:
+                event = PARSE.isEnabled() ? new ParseEvent() : null;
+                break;
+            case PROVIDER:
+                event = PROVIDER.isEnabled() ? new ProviderEvent() : null;
+                break;
+            case INVOKE:
+                event = INVOKE.isEnabled() ? new InvokeEvent() : null;
+                break;
+            case SUGGEST:
+                event = SUGGEST.isEnabled() ? new SuggestEvent() : null;
+                break;
+            case MESSAGE:
+                event = MESSAGE.isEnabled() ? new MessageEvent() : null;
+                break;
+            default:
+                event = null;
+        }
+
+        if (event == null) return Span.DISABLED;
+
+        event.begin();
+        return event;
+    }
+
+}
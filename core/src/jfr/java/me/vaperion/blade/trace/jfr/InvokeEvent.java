@@ -0,0 +1,11 @@
+package me.vaperion.blade.trace.jfr;
+
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("me.vaperion.blade.Invoke")
+@Label("Command Invoke")
+@Description("Invokes the command method")
+final class InvokeEvent extends CommandEvent {
+}
@@ -0,0 +1,11 @@
+package me.vaperion.blade.trace.jfr;
+
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("me.vaperion.blade.Message")
+@Label("Command Message")
+@Description("Sends the usage or help message")
+final class MessageEvent extends CommandEvent {
+}
@@ -0,0 +1,11 @@
+package me.vaperion.blade.trace.jfr;
+
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("me.vaperion.blade.Parse")
+@Label("Command Parse")
+@Description("Parses the arguments of a command")
+final class ParseEvent extends CommandEvent {
+}
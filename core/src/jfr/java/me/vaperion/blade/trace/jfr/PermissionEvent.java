@@ -0,0 +1,11 @@
+package me.vaperion.blade.trace.jfr;
+
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("me.vaperion.blade.Permission")
+@Label("Command Permission")
+@Description("Tests whether the sender may use a command")
+final class PermissionEvent extends CommandEvent {
+}
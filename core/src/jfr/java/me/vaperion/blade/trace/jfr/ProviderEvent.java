@@ -0,0 +1,11 @@
+package me.vaperion.blade.trace.jfr;
+
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("me.vaperion.blade.Provider")
+@Label("Command Provider")
+@Description("Parses a single argument with its provider")
+final class ProviderEvent extends CommandEvent {
+}
@@ -0,0 +1,11 @@
+package me.vaperion.blade.trace.jfr;
+
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("me.vaperion.blade.Resolve")
+@Label("Command Resolve")
+@Description("Resolves the command of a command line")
+final class ResolveEvent extends CommandEvent {
+}
@@ -0,0 +1,11 @@
+package me.vaperion.blade.trace.jfr;
+
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("me.vaperion.blade.Suggest")
+@Label("Command Suggest")
+@Description("Suggests completions for the last argument")
+final class SuggestEvent extends CommandEvent {
+}
@@ -7,13 +7,18 @@ import me.vaperion.blade.argument.ArgumentProvider;
 import me.vaperion.blade.argument.Provider;
 import me.vaperion.blade.argument.impl.*;
 import me.vaperion.blade.command.Command;
+import me.vaperion.blade.command.CommandRegistry;
 import me.vaperion.blade.container.Container;
+import me.vaperion.blade.metrics.MetricsRegistry;
 import me.vaperion.blade.platform.BladeConfiguration;
 import me.vaperion.blade.platform.BladePlatform;
 import me.vaperion.blade.service.*;
+import me.vaperion.blade.util.AliasTrie;
+import me.vaperion.blade.util.AsyncPool;
 import me.vaperion.blade.util.Binding;
 import me.vaperion.blade.util.ClassUtil;
 import me.vaperion.blade.util.PermissionPredicate;
+import me.vaperion.blade.util.Tuple;
 import org.jetbrains.annotations.Contract;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
@@ -37,15 +42,16 @@ public final class Blade {
     private final Map<String, PermissionPredicate> permissionPredicates = new HashMap<>();
 
     private final List<Provider<?>> providers = new ArrayList<>();
-    private final List<Command> commands = new ArrayList<>();
-    private final Map<String, List<Command>> aliasToCommands = new HashMap<>();
-    private final Map<String, Container> containers = new HashMap<>();
 
     private final CommandRegistrar registrar = new CommandRegistrar(this);
     private final CommandResolver resolver = new CommandResolver(this);
     private final CommandParser parser = new CommandParser(this);
     private final CommandCompleter completer = new CommandCompleter(this);
     private final PermissionTester permissionTester = new PermissionTester(this);
+    private final SuggestionCache suggestionCache = new SuggestionCache();
+    private final HelpIndex helpIndex = new HelpIndex(this);
+    private final MetricsRegistry metrics = new MetricsRegistry(this);
+    private final RateLimitService rateLimits = new RateLimitService();
 
     private Blade(Builder builder) {
         this.platform = builder.platform;
@@ -72,6 +78,8 @@ public final class Blade {
         }
 
         configuration.getTabCompleter().init(this);
+
+        if (!builder.registrations.isEmpty()) batch(blade -> builder.registrations.forEach(registration -> registration.accept(blade)));
     }
 
     @NotNull
@@ -95,19 +103,130 @@ public final class Blade {
         return this;
     }
 
+    @NotNull
+    @Contract("_, _ -> this")
+    public Blade unregister(@Nullable Object instance, @NotNull Class<?> clazz) {
+        registrar.unregisterClass(instance, clazz);
+        return this;
+    }
+
+    @NotNull
+    @Contract("_ -> this")
+    public Blade unregister(@NotNull Class<?> clazz) {
+        registrar.unregisterClass(null, clazz);
+        return this;
+    }
+
+    @NotNull
+    @Contract("_ -> this")
+    public Blade unregister(@NotNull Object instance) {
+        registrar.unregisterClass(instance, instance.getClass());
+        return this;
+    }
+
+    /**
+     * Replaces the commands of the old instance with the commands of the new one (which may be of a class loaded by a
+     * different class loader) in a single batch: only added and removed base commands are registered or removed
+     * on the platform, and cached providers and completers of the old class loader are dropped.
+     */
+    @NotNull
+    @Contract("_, _ -> this")
+    public Blade reload(@NotNull Object oldInstance, @NotNull Object newInstance) {
+        registrar.reloadClass(oldInstance, oldInstance.getClass(), newInstance, newInstance.getClass());
+        return this;
+    }
+
+    /**
+     * Replaces the static commands of the old class with the static commands of the new one, see {@link #reload(Object, Object)}.
+     */
+    @NotNull
+    @Contract("_, _ -> this")
+    public Blade reload(@NotNull Class<?> oldClass, @NotNull Class<?> newClass) {
+        registrar.reloadClass(null, oldClass, null, newClass);
+        return this;
+    }
+
     @NotNull
     @Contract("_, _ -> this")
     public Blade registerPackage(@NotNull Class<?> clazz, @NotNull String packageName) {
-        ClassUtil.getClassesInPackage(clazz, packageName).forEach(this::register);
+        List<Class<?>> classes = ClassUtil.getClassesInPackage(clazz, packageName);
+        registrar.batch(() -> classes.forEach(this::register));
+        return this;
+    }
+
+    /**
+     * Runs the given registrations as a single batch, so the platform registers all new commands with the server at once.
+     * The registrations are applied once the callback returns.
+     */
+    @NotNull
+    @Contract("_ -> this")
+    public Blade batch(@NotNull Consumer<Blade> registrations) {
+        registrar.batch(() -> registrations.accept(this));
         return this;
     }
 
+    /**
+     * The current snapshot of the registered commands, read once per operation for a consistent view across threads.
+     */
+    @NotNull
+    public CommandRegistry getRegistry() {
+        return registrar.getRegistry();
+    }
+
+    @NotNull
+    public List<Command> getCommands() {
+        return registrar.getRegistry().getCommands();
+    }
+
+    @NotNull
+    public Map<String, List<Command>> getAliasToCommands() {
+        return registrar.getRegistry().getAliasToCommands();
+    }
+
+    @NotNull
+    public AliasTrie<Tuple<Command, String>> getAliasTrie() {
+        return registrar.getRegistry().getAliasTrie();
+    }
+
+    @NotNull
+    public Map<String, Container> getContainers() {
+        return registrar.getRegistry().getContainers();
+    }
+
+    /**
+     * Invalidates all cached tab completions, see {@link me.vaperion.blade.annotation.argument.CacheSuggestions}.
+     */
+    public void invalidateSuggestions() {
+        suggestionCache.invalidateAll();
+    }
+
+    public void invalidateSuggestions(@NotNull Command command) {
+        suggestionCache.invalidate(command);
+    }
+
+    /**
+     * Invalidates all cached permission decisions, see {@link PermissionCache}.
+     */
+    public void invalidatePermissions() {
+        configuration.getPermissionCache().invalidateAll();
+    }
+
+    /**
+     * Invalidates the cached permission decisions of a sender, for example after its permissions changed.
+     *
+     * @param sender the {@link me.vaperion.blade.context.WrappedSender#getKey() key} of the sender, such as the unique id of a player
+     */
+    public void invalidatePermissions(@NotNull Object sender) {
+        configuration.getPermissionCache().invalidate(sender);
+    }
+
     public static final class Builder {
         private final BladePlatform platform;
         private final BladeConfiguration configuration;
 
         private final Map<String, PermissionPredicate> permissionPredicates = new HashMap<>();
         private final List<Binding<?>> bindings = new ArrayList<>();
+        private final List<Consumer<Blade>> registrations = new ArrayList<>();
 
         private Builder(BladePlatform platform) {
             this.platform = platform;
@@ -139,6 +258,31 @@ public final class Blade {
             return this;
         }
 
+        /**
+         * Declares a pool for {@code @Async(pool = name)} commands, so they don't compete for threads with other async commands.
+         *
+         * @param threads         the amount of commands of the pool that may run at once
+         * @param maximumQueued   the amount of commands that may wait for a thread, or 0 for no limit
+         * @param rejectionPolicy what happens to commands submitted while the queue is full
+         */
+        @NotNull
+        @Contract("_, _, _, _ -> this")
+        public Builder pool(@NotNull String name, int threads, int maximumQueued, @NotNull AsyncPool.RejectionPolicy rejectionPolicy) {
+            AsyncPool previous = configuration.getAsyncPools().put(name, new AsyncPool(name, threads, maximumQueued, rejectionPolicy));
+            if (previous != null) previous.shutdown();
+            return this;
+        }
+
+        /**
+         * Registers commands once the instance is built, all registrations are applied as a single batch.
+         */
+        @NotNull
+        @Contract("_ -> this")
+        public Builder commands(@NotNull Consumer<Blade> consumer) {
+            registrations.add(consumer);
+            return this;
+        }
+
         @NotNull
         @Contract(" -> new")
         public Blade build() {
@@ -0,0 +1,40 @@
+package me.vaperion.blade.annotation.argument;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * This annotation is used to cache the tab completions of a parameter.
+ * It can be placed on the parameter itself, or on an argument provider (or custom completer) class to cache it everywhere it's used.
+ * <p>
+ * Cached results can be invalidated through {@link me.vaperion.blade.Blade#invalidateSuggestions()}.
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.PARAMETER, ElementType.TYPE})
+public @interface CacheSuggestions {
+    /**
+     * How long the suggestions are kept for.
+     */
+    long expireAfter() default 5;
+
+    TimeUnit unit() default TimeUnit.SECONDS;
+
+    /**
+     * The maximum amount of cached inputs for the parameter, the least recently used one is evicted first.
+     */
+    int maximumSize() default 256;
+
+    /**
+     * Whether suggestions for a longer input can be computed by filtering the cached suggestions of a shorter one.
+     * This should only be enabled if the provider only returns suggestions that start with the input (ignoring case).
+     */
+    boolean filterPrefix() default false;
+
+    /**
+     * Whether the suggestions should be cached separately for every sender, for providers whose results depend on who is completing.
+     */
+    boolean perSender() default false;
+}
@@ -13,5 +13,10 @@ import java.lang.annotation.Target;
 public @interface Flag {
     char value();
 
+    /**
+     * An optional long name, which allows passing this flag as {@code --name} (or {@code --name=value}).
+     */
+    String longName() default "";
+
     String description() default "";
 }
\ No newline at end of file
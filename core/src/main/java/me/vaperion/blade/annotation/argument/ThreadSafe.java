@@ -0,0 +1,14 @@
+package me.vaperion.blade.annotation.argument;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * This annotation is used to indicate that an argument provider (or custom completer) can suggest completions from any thread.
+ * Platforms that complete commands asynchronously will only do so if the provider for the current argument is annotated with this.
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.TYPE)
+public @interface ThreadSafe {}
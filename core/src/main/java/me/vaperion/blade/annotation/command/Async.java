@@ -11,4 +11,15 @@ import java.lang.annotation.Target;
  */
 @Retention(RetentionPolicy.RUNTIME)
 @Target(ElementType.METHOD)
-public @interface Async {}
+public @interface Async {
+    /**
+     * The name of the pool to run the command in, declared with {@code Blade.Builder#pool}. By default, the command runs
+     * on the async executor of the configuration.
+     */
+    String pool() default "";
+
+    /**
+     * Commands with a higher priority overtake the waiting commands of the same pool with a lower priority.
+     */
+    int priority() default 0;
+}
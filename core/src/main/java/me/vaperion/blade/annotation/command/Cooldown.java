@@ -0,0 +1,34 @@
+package me.vaperion.blade.annotation.command;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * This annotation is used to make a sender wait between two executions of a command.
+ * <p> The cooldown is checked before the arguments are parsed, and every execution that passes the check starts it,
+ * even if the arguments turn out to be invalid.
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.METHOD)
+public @interface Cooldown {
+    /**
+     * The duration of the cooldown.
+     */
+    long value();
+
+    TimeUnit unit() default TimeUnit.SECONDS;
+
+    /**
+     * The message that gets displayed while the cooldown is active, {@code %s} is replaced with the remaining time.
+     */
+    String message() default "You must wait %s before using this command again.";
+
+    /**
+     * The permission that allows senders to bypass the cooldown.
+     * <p> If the permission is not set, every sender has to wait.
+     */
+    String bypassPermission() default "";
+}
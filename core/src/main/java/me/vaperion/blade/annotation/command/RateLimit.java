@@ -0,0 +1,40 @@
+package me.vaperion.blade.annotation.command;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * This annotation is used to limit how often a sender can execute a command.
+ * <p> Every sender has a bucket of {@link #value()} executions, which refills evenly over {@link #per()},
+ * so short bursts are allowed while the long-term rate stays limited.
+ * The limit is checked before the arguments are parsed.
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.METHOD)
+public @interface RateLimit {
+    /**
+     * The amount of executions allowed per period.
+     */
+    int value();
+
+    /**
+     * The length of the period.
+     */
+    long per() default 1L;
+
+    TimeUnit unit() default TimeUnit.MINUTES;
+
+    /**
+     * The message that gets displayed if the limit is reached, {@code %s} is replaced with the time until the next execution is allowed.
+     */
+    String message() default "You are using this command too often, try again in %s.";
+
+    /**
+     * The permission that allows senders to bypass the limit.
+     * <p> If the permission is not set, every sender is limited.
+     */
+    String bypassPermission() default "";
+}
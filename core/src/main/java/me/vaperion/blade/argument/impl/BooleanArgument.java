@@ -1,31 +1,30 @@
 package me.vaperion.blade.argument.impl;
 
+import me.vaperion.blade.annotation.argument.ThreadSafe;
 import me.vaperion.blade.argument.Argument;
 import me.vaperion.blade.argument.ArgumentProvider;
 import me.vaperion.blade.context.Context;
 import me.vaperion.blade.exception.BladeExitMessage;
+import me.vaperion.blade.util.ChoiceIndex;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
-import java.util.HashMap;
-import java.util.Locale;
-import java.util.Map;
+import java.util.List;
 
+@ThreadSafe
 public class BooleanArgument implements ArgumentProvider<Boolean> {
-    private static final Map<String, Boolean> BOOLEAN_MAP = new HashMap<>();
-
-    static {
-        BOOLEAN_MAP.put("true", true);
-        BOOLEAN_MAP.put("false", false);
-        BOOLEAN_MAP.put("yes", true);
-        BOOLEAN_MAP.put("no", false);
-        BOOLEAN_MAP.put("1", true);
-        BOOLEAN_MAP.put("0", false);
-    }
+    private static final ChoiceIndex<Boolean> BOOLEANS = ChoiceIndex.<Boolean>builder()
+          .add("true", true)
+          .add("false", false)
+          .alias("yes", true)
+          .alias("no", false)
+          .alias("1", true)
+          .alias("0", false)
+          .build();
 
     @Override
     public @Nullable Boolean provide(@NotNull Context ctx, @NotNull Argument arg) throws BladeExitMessage {
-        Boolean bool = BOOLEAN_MAP.get(arg.getString().toLowerCase(Locale.ROOT));
+        Boolean bool = BOOLEANS.get(arg.getString());
 
         if (bool == null) {
             if (arg.getParameter().ignoreFailedArgumentParse()) return null;
@@ -34,4 +33,9 @@ public class BooleanArgument implements ArgumentProvider<Boolean> {
 
         return bool;
     }
+
+    @Override
+    public @NotNull List<String> suggest(@NotNull Context ctx, @NotNull Argument arg) throws BladeExitMessage {
+        return BOOLEANS.suggest(arg.getString());
+    }
 }
@@ -1,6 +1,7 @@
 package me.vaperion.blade.argument.impl;
 
 import me.vaperion.blade.annotation.argument.Range;
+import me.vaperion.blade.annotation.argument.ThreadSafe;
 import me.vaperion.blade.argument.Argument;
 import me.vaperion.blade.argument.ArgumentProvider;
 import me.vaperion.blade.context.Context;
@@ -10,6 +11,7 @@ import org.jetbrains.annotations.Nullable;
 
 import java.text.DecimalFormat;
 
+@ThreadSafe
 public class FloatArgument implements ArgumentProvider<Float> {
     private static final DecimalFormat NUMBER_FORMAT = new DecimalFormat("#.#");
 
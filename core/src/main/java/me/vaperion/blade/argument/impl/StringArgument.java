@@ -1,5 +1,6 @@
 package me.vaperion.blade.argument.impl;
 
+import me.vaperion.blade.annotation.argument.ThreadSafe;
 import me.vaperion.blade.argument.Argument;
 import me.vaperion.blade.argument.ArgumentProvider;
 import me.vaperion.blade.context.Context;
@@ -7,6 +8,7 @@ import me.vaperion.blade.exception.BladeExitMessage;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
+@ThreadSafe
 public class StringArgument implements ArgumentProvider<String> {
     @Override
     public @Nullable String provide(@NotNull Context ctx, @NotNull Argument arg) throws BladeExitMessage {
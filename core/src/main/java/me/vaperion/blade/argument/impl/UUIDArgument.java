@@ -1,5 +1,6 @@
 package me.vaperion.blade.argument.impl;
 
+import me.vaperion.blade.annotation.argument.ThreadSafe;
 import me.vaperion.blade.argument.Argument;
 import me.vaperion.blade.argument.ArgumentProvider;
 import me.vaperion.blade.context.Context;
@@ -9,6 +10,7 @@ import org.jetbrains.annotations.Nullable;
 
 import java.util.UUID;
 
+@ThreadSafe
 public class UUIDArgument implements ArgumentProvider<UUID> {
     @Override
     public @Nullable UUID provide(@NotNull Context ctx, @NotNull Argument arg) throws BladeExitMessage {
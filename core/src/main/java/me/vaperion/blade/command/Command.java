@@ -9,10 +9,10 @@ import me.vaperion.blade.command.Parameter.CommandParameter;
 import me.vaperion.blade.command.Parameter.FlagParameter;
 import me.vaperion.blade.context.Context;
 import me.vaperion.blade.context.WrappedSender;
-import me.vaperion.blade.util.ClassUtil;
 import me.vaperion.blade.util.LoadedValue;
 import org.jetbrains.annotations.NotNull;
 
+import java.lang.reflect.AnnotatedElement;
 import java.lang.reflect.Method;
 import java.util.ArrayList;
 import java.util.Arrays;
@@ -21,6 +21,7 @@ import java.util.List;
 import java.util.stream.Collectors;
 
 import static me.vaperion.blade.util.Preconditions.checkNotEmpty;
+import static me.vaperion.blade.util.Preconditions.checkState;
 import static me.vaperion.blade.util.Preconditions.runOrDefault;
 
 @Getter
@@ -29,62 +30,88 @@ public final class Command {
     private final Blade blade;
 
     private final Object instance;
-    private final Method method;
+    private final CommandDefinition definition;
     private final String[] aliases, baseCommands;
     private final String description, usageAlias, customUsage, extraUsageData;
     private final String permission, permissionMessage;
     private final boolean async, quoted, hidden;
+    private final String asyncPool;
+    private final int asyncPriority;
+    private final List<RateLimiter> rateLimiters;
 
     private final boolean hasSenderParameter, contextBased, wrappedSenderBased;
     private final Class<?> senderType;
 
+    private final CommandInvoker invoker;
+
     private final List<Parameter> parameters = new ArrayList<>();
     private final List<ArgumentProvider<?>> providers = new ArrayList<>(), parameterProviders = new ArrayList<>(), flagProviders = new ArrayList<>();
+    private final List<CommandParameter> commandParameters;
+    private final List<FlagParameter> flagParameters;
+    private final ParsePlan parsePlan;
 
     private final LoadedValue<UsageMessage> usageMessage = new LoadedValue<>(), helpMessage = new LoadedValue<>();
 
     public Command(Blade blade, Object instance, Method method) {
+        this(blade, instance, CommandDefinition.of(method));
+    }
+
+    public Command(Blade blade, Object instance, CommandDefinition definition) {
         this.blade = blade;
 
         this.instance = instance;
-        this.method = method;
-
-        this.aliases = method.getAnnotation(me.vaperion.blade.annotation.command.Command.class).value();
-        this.description = runOrDefault(method.getAnnotation(Description.class), "", Description::value);
-        this.async = runOrDefault(method.getAnnotation(Async.class), false, $ -> true);
-        this.hidden = runOrDefault(method.getAnnotation(Hidden.class), false, $ -> true);
-        this.usageAlias = runOrDefault(method.getAnnotation(UsageAlias.class), this.aliases[0], UsageAlias::value);
-        this.customUsage = runOrDefault(method.getAnnotation(Usage.class), "", Usage::value);
-        this.extraUsageData = runOrDefault(method.getAnnotation(ExtraUsage.class), "", ExtraUsage::value);
+        this.definition = definition;
+
+        AnnotatedElement element = definition.getAnnotations();
+        List<CommandDefinition.ParameterDefinition> parameterDefinitions = definition.getParameters();
+
+        this.aliases = element.getAnnotation(me.vaperion.blade.annotation.command.Command.class).value();
+        this.description = runOrDefault(element.getAnnotation(Description.class), "", Description::value);
+        this.async = runOrDefault(element.getAnnotation(Async.class), false, $ -> true);
+        this.asyncPool = runOrDefault(element.getAnnotation(Async.class), "", Async::pool);
+        this.asyncPriority = runOrDefault(element.getAnnotation(Async.class), 0, Async::priority);
+        checkState(asyncPool.isEmpty() || blade.getConfiguration().getAsyncPools().containsKey(asyncPool),
+              "Async pool '" + asyncPool + "' of command " + definition.getQualifiedName() + " was not declared.");
+        this.hidden = runOrDefault(element.getAnnotation(Hidden.class), false, $ -> true);
+        this.usageAlias = runOrDefault(element.getAnnotation(UsageAlias.class), this.aliases[0], UsageAlias::value);
+        this.customUsage = runOrDefault(element.getAnnotation(Usage.class), "", Usage::value);
+        this.extraUsageData = runOrDefault(element.getAnnotation(ExtraUsage.class), "", ExtraUsage::value);
 
         this.baseCommands = Arrays.stream(aliases)
               .map(String::toLowerCase)
               .map(s -> s.split(" ")[0])
               .distinct().toArray(String[]::new);
 
-        Permission permission = method.getAnnotation(Permission.class);
+        Permission permission = element.getAnnotation(Permission.class);
         this.permission = permission != null ? permission.value() : "";
         this.permissionMessage = checkNotEmpty(permission != null ? permission.message() : "", blade.getConfiguration().getDefaultPermissionMessage());
 
-        this.quoted = method.isAnnotationPresent(ParseQuotes.class);
+        this.quoted = element.isAnnotationPresent(ParseQuotes.class);
+
+        List<RateLimiter> rateLimiters = new ArrayList<>(0);
+        if (element.isAnnotationPresent(RateLimit.class)) rateLimiters.add(RateLimiter.of(element.getAnnotation(RateLimit.class)));
+        if (element.isAnnotationPresent(Cooldown.class)) rateLimiters.add(RateLimiter.of(element.getAnnotation(Cooldown.class)));
+        this.rateLimiters = rateLimiters.isEmpty() ? Collections.emptyList() : Collections.unmodifiableList(rateLimiters);
 
-        this.hasSenderParameter = method.getParameterCount() > 0 && method.getParameters()[0].isAnnotationPresent(Sender.class);
-        this.senderType = hasSenderParameter ? method.getParameters()[0].getType() : null;
-        this.contextBased = method.getParameterCount() == 1 && method.getParameterTypes()[0] == Context.class;
-        this.wrappedSenderBased = method.getParameterCount() == 1 && method.getParameterTypes()[0] == WrappedSender.class;
+        int parameterCount = parameterDefinitions.size();
+        this.hasSenderParameter = parameterCount > 0 && parameterDefinitions.get(0).getAnnotations().isAnnotationPresent(Sender.class);
+        this.senderType = hasSenderParameter ? parameterDefinitions.get(0).getType() : null;
+        this.contextBased = parameterCount == 1 && parameterDefinitions.get(0).getType() == Context.class;
+        this.wrappedSenderBased = parameterCount == 1 && parameterDefinitions.get(0).getType() == WrappedSender.class;
 
-        method.setAccessible(true);
+        this.invoker = definition.createInvoker(instance);
 
         int i = 0;
-        for (java.lang.reflect.Parameter parameter : method.getParameters()) {
+        for (CommandDefinition.ParameterDefinition parameterDefinition : parameterDefinitions) {
             if (i == 0 && hasSenderParameter) {
                 i++;
                 continue;
             }
 
-            Class<?> type = ClassUtil.getGenericOrRawType(parameter);
+            Class<?> type = parameterDefinition.getValueType();
+            AnnotatedElement parameter = parameterDefinition.getAnnotations();
 
-            String parameterName = parameter.isAnnotationPresent(Name.class) ? parameter.getAnnotation(Name.class).value() : parameter.getName();
+            String parameterName = parameter.isAnnotationPresent(Name.class) ? parameter.getAnnotation(Name.class).value() : parameterDefinition.getName();
             String[] parameterData = parameter.isAnnotationPresent(Data.class) ? parameter.getAnnotation(Data.class).value() : null;
             Parameter bladeParameter;
 
@@ -109,22 +136,32 @@ public final class Command {
 
             i++;
         }
+
+        this.commandParameters = Collections.unmodifiableList(parameters.stream()
+              .filter(CommandParameter.class::isInstance)
+              .map(CommandParameter.class::cast)
+              .collect(Collectors.toList()));
+        this.flagParameters = Collections.unmodifiableList(parameters.stream()
+              .filter(FlagParameter.class::isInstance)
+              .map(FlagParameter.class::cast)
+              .collect(Collectors.toList()));
+
+        this.parsePlan = new ParsePlan(parameters, providers, hasSenderParameter ? 1 : 0, parameterCount);
+    }
+
+    @NotNull
+    public Method getMethod() {
+        return definition.getMethod();
     }
 
     @NotNull
     public List<CommandParameter> getCommandParameters() {
-        return parameters.stream()
-              .filter(CommandParameter.class::isInstance)
-              .map(CommandParameter.class::cast)
-              .collect(Collectors.toList());
+        return commandParameters;
     }
 
     @NotNull
     public List<FlagParameter> getFlagParameters() {
-        return parameters.stream()
-              .filter(FlagParameter.class::isInstance)
-              .map(FlagParameter.class::cast)
-              .collect(Collectors.toList());
+        return flagParameters;
     }
 
 }
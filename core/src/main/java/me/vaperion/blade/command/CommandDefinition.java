@@ -0,0 +1,112 @@
+package me.vaperion.blade.command;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import me.vaperion.blade.util.ClassUtil;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.lang.reflect.AnnotatedElement;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The metadata a {@link Command} is built from, either read reflectively from a {@link Method}
+ * or precomputed by the annotation processor in a {@link CommandDispatcher}.
+ */
+@Getter
+public final class CommandDefinition {
+
+    private final Class<?> type;
+    private final String methodName;
+    private final Class<?>[] parameterTypes;
+    private final boolean isStatic;
+
+    private final AnnotatedElement annotations;
+    private final List<ParameterDefinition> parameters;
+    private final CommandInvoker.Direct invoker;
+
+    private volatile Method method;
+
+    public CommandDefinition(@NotNull Class<?> type, @NotNull String methodName, @NotNull Class<?>[] parameterTypes, boolean isStatic,
+                             @NotNull AnnotatedElement annotations, @NotNull List<ParameterDefinition> parameters,
+                             @NotNull CommandInvoker.Direct invoker) {
+        this(type, methodName, parameterTypes, isStatic, annotations, parameters, invoker, null);
+    }
+
+    private CommandDefinition(Class<?> type, String methodName, Class<?>[] parameterTypes, boolean isStatic, AnnotatedElement annotations,
+                              List<ParameterDefinition> parameters, CommandInvoker.Direct invoker, Method method) {
+        this.type = type;
+        this.methodName = methodName;
+        this.parameterTypes = parameterTypes;
+        this.isStatic = isStatic;
+        this.annotations = annotations;
+        this.parameters = Collections.unmodifiableList(parameters);
+        this.invoker = invoker;
+        this.method = method;
+    }
+
+    @NotNull
+    public static CommandDefinition of(@NotNull Method method) {
+        List<ParameterDefinition> parameters = new ArrayList<>(method.getParameterCount());
+        for (java.lang.reflect.Parameter parameter : method.getParameters()) {
+            parameters.add(new ParameterDefinition(parameter.getName(), parameter.getType(), ClassUtil.getGenericOrRawType(parameter), parameter));
+        }
+
+        return new CommandDefinition(method.getDeclaringClass(), method.getName(), method.getParameterTypes(),
+              Modifier.isStatic(method.getModifiers()), method, parameters, null, method);
+    }
+
+    /**
+     * Whether this definition was generated at compile time, in which case the method is only looked up on demand.
+     */
+    public boolean isGenerated() {
+        return invoker != null;
+    }
+
+    @NotNull
+    public Method getMethod() {
+        Method method = this.method;
+        if (method != null) return method;
+
+        try {
+            return this.method = type.getMethod(methodName, parameterTypes);
+        } catch (NoSuchMethodException ex) {
+            throw new IllegalStateException("Generated command " + type.getName() + "#" + methodName + " no longer matches its class", ex);
+        }
+    }
+
+    @NotNull
+    public CommandInvoker createInvoker(@Nullable Object instance) {
+        if (invoker != null) return new CommandInvoker(instance, invoker);
+
+        Method method = getMethod();
+        method.setAccessible(true);
+        return new CommandInvoker(instance, method);
+    }
+
+    /**
+     * @return the name of the method including its class, e.g. {@code com.example.Commands#teleport}
+     */
+    @NotNull
+    public String getQualifiedName() {
+        return type.getName() + "#" + methodName;
+    }
+
+    public int getParameterCount() {
+        return parameters.size();
+    }
+
+    @Getter
+    @RequiredArgsConstructor
+    public static final class ParameterDefinition {
+        private final String name;
+        private final Class<?> type;
+        private final Class<?> valueType;
+        private final AnnotatedElement annotations;
+    }
+
+}
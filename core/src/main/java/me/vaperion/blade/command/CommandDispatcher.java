@@ -0,0 +1,21 @@
+package me.vaperion.blade.command;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.List;
+
+/**
+ * Implemented by the {@code <Class>_BladeDispatcher} classes the annotation processor generates for every class declaring commands.
+ * When one is present, registering the class uses its precomputed definitions instead of scanning the class reflectively.
+ */
+public interface CommandDispatcher {
+
+    String SUFFIX = "_BladeDispatcher";
+
+    @NotNull
+    Class<?> getType();
+
+    @NotNull
+    List<CommandDefinition> getCommands();
+
+}
@@ -0,0 +1,60 @@
+package me.vaperion.blade.command;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+
+/**
+ * Invokes a command method through a {@link MethodHandle} that is bound to the command instance
+ * and adapted to take the arguments as a single array, compiled once when the command is created.
+ * Commands registered from a generated dispatcher are called directly instead.
+ * <p>
+ * Unlike {@link Method#invoke(Object, Object...)}, exceptions thrown by the command are not wrapped.
+ */
+public final class CommandInvoker {
+
+    private static final MethodType INVOKER_TYPE = MethodType.methodType(void.class, Object[].class);
+
+    private final MethodHandle handle;
+    private final Object instance;
+    private final Direct direct;
+
+    public CommandInvoker(@Nullable Object instance, @NotNull Direct direct) {
+        this.handle = null;
+        this.instance = instance;
+        this.direct = direct;
+    }
+
+    public CommandInvoker(@Nullable Object instance, @NotNull Method method) {
+        this.instance = null;
+        this.direct = null;
+
+        try {
+            MethodHandle handle = MethodHandles.lookup().unreflect(method);
+            if (!Modifier.isStatic(method.getModifiers())) handle = handle.bindTo(instance);
+
+            this.handle = handle.asSpreader(Object[].class, method.getParameterCount()).asType(INVOKER_TYPE);
+        } catch (IllegalAccessException ex) {
+            throw new IllegalStateException("Failed to create an invoker for method " + method.getDeclaringClass().getName() + "#" + method.getName(), ex);
+        }
+    }
+
+    public void invoke(@NotNull Object[] arguments) throws Throwable {
+        if (direct != null) direct.invoke(instance, arguments);
+        else handle.invokeExact(arguments);
+    }
+
+    /**
+     * A compiled call to a command method, emitted by the annotation processor.
+     */
+    @FunctionalInterface
+    public interface Direct {
+        void invoke(@Nullable Object instance, @NotNull Object[] arguments) throws Throwable;
+    }
+
+}
@@ -0,0 +1,32 @@
+package me.vaperion.blade.command;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import me.vaperion.blade.container.Container;
+import me.vaperion.blade.util.AliasTrie;
+import me.vaperion.blade.util.Tuple;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * An immutable snapshot of the registered commands.
+ * <p>
+ * The registrar publishes a new snapshot once every registration batch completes, so readers on any thread
+ * (command execution, tab completion, async commands) see a consistent registry without locking.
+ */
+@Getter
+@RequiredArgsConstructor
+public final class CommandRegistry {
+
+    public static final CommandRegistry EMPTY = new CommandRegistry(Collections.emptyList(), Collections.emptyMap(),
+          new AliasTrie<Tuple<Command, String>>().snapshot(null, Collections.emptySet()), Collections.emptyMap());
+
+    private final List<Command> commands;
+    private final Map<String, List<Command>> aliasToCommands;
+    private final AliasTrie<Tuple<Command, String>> aliasTrie;
+    private final Map<String, Container> containers;
+
+}
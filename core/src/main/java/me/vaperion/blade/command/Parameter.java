@@ -8,6 +8,7 @@ import me.vaperion.blade.annotation.argument.Optional;
 import me.vaperion.blade.annotation.argument.Range;
 import me.vaperion.blade.argument.ArgumentProvider;
 import me.vaperion.blade.exception.BladeExitMessage;
+import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
 import java.lang.reflect.AnnotatedElement;
@@ -63,6 +64,13 @@ public class Parameter {
         }
     }
 
+    /**
+     * Drops the cached custom completers loaded by the given class loader, so it can be unloaded.
+     */
+    public static void invalidateCompleters(@NotNull ClassLoader classLoader) {
+        COMPLETER_CACHE.keySet().removeIf(type -> type.getClassLoader() == classLoader);
+    }
+
     @Nullable
     public String getDefault() {
         return isOptional() ? optional.value() : null;
@@ -96,12 +104,20 @@ public class Parameter {
 
         @Nullable
         public String extractFrom(Map<Character, String> flagMap) {
-            if (!flagMap.containsKey(flag.value())) {
+            return extract(flagMap.get(flag.value()));
+        }
+
+        /**
+         * @param value the value passed for this flag, or null if it was not present
+         */
+        @Nullable
+        public String extract(@Nullable String value) {
+            if (value == null) {
                 if (this.optional != null) return this.optional.value();
                 return isBooleanFlag() ? "false" : null;
             }
 
-            return flagMap.get(flag.value());
+            return value;
         }
     }
 
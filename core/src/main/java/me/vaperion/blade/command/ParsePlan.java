@@ -0,0 +1,152 @@
+package me.vaperion.blade.command;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+import me.vaperion.blade.annotation.argument.CacheSuggestions;
+import me.vaperion.blade.annotation.argument.ThreadSafe;
+import me.vaperion.blade.argument.ArgumentProvider;
+import me.vaperion.blade.command.Parameter.FlagParameter;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.lang.annotation.Annotation;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * An immutable description of how the arguments of a command are parsed, computed once when the command is registered.
+ * <p>
+ * Every non-sender method parameter has a {@link Slot}, holding its resolved provider, the index it occupies in the
+ * method's argument array and (for non-flag parameters) the index of the command line argument it consumes.
+ * Flags are looked up through a table indexed by their (ASCII) character and a map of their long names.
+ */
+@Getter
+public final class ParsePlan {
+
+    private static final int FLAG_TABLE_SIZE = 128;
+
+    private final Slot[] slots;
+    private final Slot[] positionalSlots;
+    private final Slot[] flagSlots;
+    private final FlagParameter[] flags;
+    private final int arity;
+
+    @Getter(AccessLevel.NONE) private final Slot[] flagTable = new Slot[FLAG_TABLE_SIZE];
+    @Getter(AccessLevel.NONE) private final Map<String, Slot> longFlags;
+
+    ParsePlan(@NotNull List<Parameter> parameters, @NotNull List<ArgumentProvider<?>> providers, int offset, int arity) {
+        this.slots = new Slot[parameters.size()];
+        this.arity = arity;
+
+        int flagCount = 0, position = 0;
+        for (int i = 0; i < slots.length; i++) {
+            Parameter parameter = parameters.get(i);
+            boolean flag = parameter instanceof FlagParameter;
+
+            slots[i] = new Slot(parameter, providers.get(i), offset + i, flag ? -1 : position, flag ? flagCount : -1);
+
+            if (flag) flagCount++;
+            else position++;
+        }
+
+        this.positionalSlots = new Slot[position];
+        this.flagSlots = new Slot[flagCount];
+        this.flags = new FlagParameter[flagCount];
+
+        Map<String, Slot> longFlags = new HashMap<>();
+        for (Slot slot : slots) {
+            if (!slot.flag) {
+                positionalSlots[slot.position] = slot;
+                continue;
+            }
+
+            FlagParameter parameter = (FlagParameter) slot.parameter;
+            flagSlots[slot.flagIndex] = slot;
+            flags[slot.flagIndex] = parameter;
+
+            // the first flag declared with a given character or name wins
+            char flag = parameter.getFlag().value();
+            if (flag < FLAG_TABLE_SIZE && flagTable[flag] == null) flagTable[flag] = slot;
+
+            String longName = parameter.getFlag().longName();
+            if (!longName.isEmpty()) longFlags.putIfAbsent(longName, slot);
+        }
+
+        this.longFlags = longFlags.isEmpty() ? Collections.emptyMap() : longFlags;
+    }
+
+    public boolean hasFlags() {
+        return flags.length != 0;
+    }
+
+    @Nullable
+    public FlagParameter getFlag(char flag) {
+        Slot slot = getFlagSlot(flag);
+        return slot == null ? null : (FlagParameter) slot.parameter;
+    }
+
+    @Nullable
+    public Slot getFlagSlot(char flag) {
+        if (flag < FLAG_TABLE_SIZE) return flagTable[flag];
+
+        for (Slot slot : flagSlots) {
+            if (((FlagParameter) slot.parameter).getFlag().value() == flag) return slot;
+        }
+        return null;
+    }
+
+    @Nullable
+    public Slot getFlagSlot(@NotNull String longName) {
+        return longFlags.get(longName);
+    }
+
+    @Getter
+    public static final class Slot {
+        private final Parameter parameter;
+        private final ArgumentProvider<?> provider;
+
+        private final int index, position, flagIndex;
+        private final boolean flag, text, optional, defaultsToNull, ignoreFailedArgumentParse;
+        private final String defaultValue;
+        @Nullable private final CacheSuggestions cacheSuggestions;
+        private final boolean threadSafe;
+
+        private Slot(Parameter parameter, ArgumentProvider<?> provider, int index, int position, int flagIndex) {
+            this.parameter = parameter;
+            this.provider = provider;
+
+            this.index = index;
+            this.position = position;
+            this.flagIndex = flagIndex;
+
+            this.flag = parameter instanceof FlagParameter;
+            this.text = parameter.isText();
+            this.optional = parameter.isOptional();
+            this.defaultsToNull = parameter.defaultsToNull();
+            this.ignoreFailedArgumentParse = parameter.ignoreFailedArgumentParse();
+            this.defaultValue = parameter.getDefault();
+            this.cacheSuggestions = findSuggestionAnnotation(parameter, provider, CacheSuggestions.class);
+            this.threadSafe = findSuggestionAnnotation(parameter, provider, ThreadSafe.class) != null;
+        }
+
+        /**
+         * Looks for the annotation on the parameter, then on the class that suggests its completions.
+         */
+        @Nullable
+        private static <A extends Annotation> A findSuggestionAnnotation(Parameter parameter, ArgumentProvider<?> provider, Class<A> type) {
+            A annotation = parameter.getElement() == null ? null : parameter.getElement().getAnnotation(type);
+            if (annotation != null) return annotation;
+
+            // a custom completer replaces the provider when suggesting
+            if (parameter.hasCustomCompleter()) return parameter.getCompleter().value().getAnnotation(type);
+            return provider == null ? null : provider.getClass().getAnnotation(type);
+        }
+
+        public boolean isBooleanFlag() {
+            return flag && ((FlagParameter) parameter).isBooleanFlag();
+        }
+    }
+
+}
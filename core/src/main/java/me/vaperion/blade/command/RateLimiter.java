@@ -0,0 +1,164 @@
+package me.vaperion.blade.command;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+import me.vaperion.blade.annotation.command.Cooldown;
+import me.vaperion.blade.annotation.command.RateLimit;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A per-sender token bucket of a command, created from its {@link Cooldown} or {@link RateLimit} annotation.
+ * <p>
+ * Every bucket is a single timestamp (the generic cell rate algorithm): the time at which the bucket is full again,
+ * updated with a compare-and-set, so checks never lock. A bucket that is full again is the same as a missing one,
+ * so they are removed in bulk by {@link #sweep(long)} instead of on every lookup. A swept bucket is marked dead
+ * before it's removed, so a concurrent check can't take a token from a bucket that's no longer mapped.
+ * Timestamps are wall clock milliseconds, so they stay valid across restarts.
+ */
+@Getter
+public final class RateLimiter {
+
+    // The value of a bucket that was swept, it's replaced by a new bucket on its next use
+    private static final long DEAD = Long.MAX_VALUE;
+
+    private final String name;
+    private final long interval, tolerance;
+    private final String message, bypassPermission;
+
+    @Getter(AccessLevel.NONE) private final Map<String, AtomicLong> buckets = new ConcurrentHashMap<>();
+
+    private RateLimiter(String name, long interval, long tolerance, String message, String bypassPermission) {
+        this.name = name;
+        this.interval = Math.max(1L, interval);
+        this.tolerance = tolerance;
+        this.message = message;
+        this.bypassPermission = bypassPermission;
+    }
+
+    @NotNull
+    public static RateLimiter of(@NotNull Cooldown cooldown) {
+        return new RateLimiter("cooldown", cooldown.unit().toMillis(cooldown.value()), 0L, cooldown.message(), cooldown.bypassPermission());
+    }
+
+    @NotNull
+    public static RateLimiter of(@NotNull RateLimit rateLimit) {
+        int permits = Math.max(1, rateLimit.value());
+        long interval = rateLimit.unit().toMillis(rateLimit.per()) / permits;
+        return new RateLimiter("rate-limit", interval, interval * (permits - 1), rateLimit.message(), rateLimit.bypassPermission());
+    }
+
+    /**
+     * Takes a token from the bucket of the sender, if there is one.
+     *
+     * @return 0 if a token was taken, otherwise the milliseconds until the next one is available
+     */
+    public long tryAcquire(@NotNull String sender, long now) {
+        AtomicLong bucket = bucketOf(sender);
+
+        while (true) {
+            long full = bucket.get();
+            if (full == DEAD) {
+                bucket = replaceDead(sender, bucket);
+                continue;
+            }
+
+            long base = Math.max(full, now);
+
+            long allowedAt = base - tolerance;
+            if (allowedAt > now) return allowedAt - now;
+
+            if (bucket.compareAndSet(full, base + interval)) return 0L;
+        }
+    }
+
+    /**
+     * Returns a token taken by {@link #tryAcquire(String, long)}, when the command was rejected by another limiter.
+     */
+    public void release(@NotNull String sender) {
+        AtomicLong bucket = buckets.get(sender);
+        if (bucket == null) return;
+
+        long full;
+        do {
+            full = bucket.get();
+            if (full == DEAD) return;
+        } while (!bucket.compareAndSet(full, full - interval));
+    }
+
+    /**
+     * Removes the buckets that are full again.
+     */
+    public void sweep(long now) {
+        buckets.forEach((sender, bucket) -> {
+            long full = bucket.get();
+            if (full <= now && bucket.compareAndSet(full, DEAD)) buckets.remove(sender, bucket);
+        });
+    }
+
+    /**
+     * @return the buckets that aren't full yet, as the time they will be
+     */
+    @NotNull
+    public Map<String, Long> snapshot(long now) {
+        Map<String, Long> snapshot = new HashMap<>();
+        buckets.forEach((sender, bucket) -> {
+            long full = bucket.get();
+            if (full > now && full != DEAD) snapshot.put(sender, full);
+        });
+        return snapshot;
+    }
+
+    public void restore(@NotNull String sender, long full) {
+        AtomicLong bucket = bucketOf(sender);
+
+        while (true) {
+            long current = bucket.get();
+            if (current == DEAD) bucket = replaceDead(sender, bucket);
+            else if (current >= full || bucket.compareAndSet(current, full)) return;
+        }
+    }
+
+    private AtomicLong bucketOf(String sender) {
+        AtomicLong bucket = buckets.get(sender);
+        return bucket != null ? bucket : buckets.computeIfAbsent(sender, $ -> new AtomicLong(Long.MIN_VALUE));
+    }
+
+    private AtomicLong replaceDead(String sender, AtomicLong dead) {
+        buckets.remove(sender, dead); // in case the sweep didn't remove it yet
+        return bucketOf(sender);
+    }
+
+    public void clear() {
+        buckets.clear();
+    }
+
+    @NotNull
+    public String formatMessage(long remaining) {
+        return message.replace("%s", formatDuration(remaining));
+    }
+
+    @NotNull
+    static String formatDuration(long millis) {
+        long seconds = Math.max(1L, (millis + 999L) / 1000L);
+        long hours = seconds / 3600L, minutes = seconds / 60L % 60L;
+        seconds %= 60L;
+
+        StringBuilder builder = new StringBuilder();
+        if (hours > 0) append(builder, hours, "hour");
+        if (minutes > 0) append(builder, minutes, "minute");
+        if (seconds > 0) append(builder, seconds, "second");
+        return builder.toString();
+    }
+
+    private static void append(StringBuilder builder, long amount, String unit) {
+        if (builder.length() > 0) builder.append(' ');
+        builder.append(amount).append(' ').append(unit);
+        if (amount != 1) builder.append('s');
+    }
+
+}
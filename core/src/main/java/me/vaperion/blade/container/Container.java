@@ -8,4 +8,17 @@ public interface Container {
     @NotNull Blade getBlade();
 
     @NotNull Command getBaseCommand();
+
+    /**
+     * Called after commands were registered or unregistered under the base command of this container.
+     */
+    default void refresh() {
+    }
+
+    /**
+     * Called when the last command under the base command of this container was unregistered and a new one was registered
+     * in the same batch (e.g. by a reload), so the container stays registered with the platform instead of being replaced.
+     */
+    default void rebind(@NotNull Command baseCommand) {
+    }
 }
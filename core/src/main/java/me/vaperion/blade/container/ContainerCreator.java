@@ -4,7 +4,23 @@ import me.vaperion.blade.Blade;
 import me.vaperion.blade.command.Command;
 import org.jetbrains.annotations.NotNull;
 
+import java.util.List;
+
 public interface ContainerCreator<T extends Container> {
     @NotNull
     T create(@NotNull Blade blade, @NotNull Command command, @NotNull String alias) throws Exception;
+
+    /**
+     * Called once with every container created during a registration batch, after all of its commands were registered.
+     * Platforms that register containers with the server in bulk do it here.
+     */
+    default void commit(@NotNull Blade blade, @NotNull List<Container> containers) throws Exception {
+    }
+
+    /**
+     * Called once with every container whose last command was unregistered during a batch, after it was removed from Blade.
+     * Platforms remove the containers from the server here.
+     */
+    default void release(@NotNull Blade blade, @NotNull List<Container> containers) throws Exception {
+    }
 }
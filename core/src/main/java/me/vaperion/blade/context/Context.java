@@ -1,18 +1,39 @@
 package me.vaperion.blade.context;
 
-import lombok.RequiredArgsConstructor;
 import me.vaperion.blade.Blade;
+import me.vaperion.blade.trace.Tracing;
+import me.vaperion.blade.util.CommandLine;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
-@RequiredArgsConstructor
 public final class Context {
 
     private final Blade blade;
 
     private final WrappedSender<?> sender;
     private final String alias;
-    private final String[] arguments;
+
+    private final CommandLine line;
+    private final int from;
+    private String[] arguments;
+    private long dispatchId;
+
+    public Context(Blade blade, WrappedSender<?> sender, String alias, String[] arguments) {
+        this(blade, sender, alias, null, 0);
+        this.arguments = arguments;
+    }
+
+    /**
+     * Creates a context whose arguments are the tokens of the command line starting at the given index,
+     * they are only copied into an array if {@link #arguments()} is called.
+     */
+    public Context(Blade blade, WrappedSender<?> sender, String alias, CommandLine line, int from) {
+        this.blade = blade;
+        this.sender = sender;
+        this.alias = alias;
+        this.line = line;
+        this.from = from;
+    }
 
     public void reply(@NotNull String message) {
         sender.sendMessage(message);
@@ -24,11 +45,17 @@ public final class Context {
 
     @NotNull
     public String[] arguments() {
+        if (arguments == null) arguments = line.toArray(from);
         return arguments;
     }
 
     @Nullable
     public String argument(int index) {
+        if (arguments == null) {
+            if (index < 0 || from + index >= line.size()) return null;
+            return line.get(from + index);
+        }
+
         if (index < 0 || index >= arguments.length) return null;
         return arguments[index];
     }
@@ -43,6 +70,14 @@ public final class Context {
         return sender;
     }
 
+    /**
+     * @return an id identifying this dispatch in Flight Recorder events, assigned when it's first needed
+     */
+    public long dispatchId() {
+        if (dispatchId == 0L) dispatchId = Tracing.nextDispatchId();
+        return dispatchId;
+    }
+
     @NotNull
     public Blade blade() {
         return blade;
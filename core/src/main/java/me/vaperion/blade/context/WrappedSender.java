@@ -8,6 +8,22 @@ public interface WrappedSender<T> {
 
     @NotNull String getName();
 
+    /**
+     * A key identifying the sender across commands, such as the unique id of a player. Defaults to the name of the sender.
+     */
+    @NotNull
+    default Object getKey() {
+        return getName();
+    }
+
+    /**
+     * Whether the {@link #getKey() key} identifies this sender alone, which is the case for players and the console,
+     * but not for senders that share a name, such as command blocks.
+     */
+    default boolean isUniquelyKeyed() {
+        return false;
+    }
+
     boolean hasPermission(@NotNull String permission);
 
     void sendMessage(@NotNull String message);
@@ -0,0 +1,157 @@
+package me.vaperion.blade.metrics;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+import me.vaperion.blade.command.Command;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counters and latency histograms of a single command.
+ * <p>
+ * The execution histogram measures parsing and invoking the command, the queue histogram measures
+ * how long {@link me.vaperion.blade.annotation.command.Async} commands waited for the executor.
+ * Invocations and the execution histogram only count the commands that completed, so usage failures,
+ * exit messages (commands rejecting their input with a {@link me.vaperion.blade.exception.BladeExitMessage})
+ * and errors are counted separately and don't skew the latencies.
+ */
+@Getter
+public final class CommandMetrics implements CommandMetricsMBean {
+
+    private final Command command;
+
+    private final LatencyHistogram executeLatency = new LatencyHistogram();
+    private final LatencyHistogram queueLatency = new LatencyHistogram();
+    private final LatencyHistogram suggestLatency = new LatencyHistogram();
+
+    @Getter(AccessLevel.NONE) private final LongAdder invocations = new LongAdder();
+    @Getter(AccessLevel.NONE) private final LongAdder usageFailures = new LongAdder();
+    @Getter(AccessLevel.NONE) private final LongAdder exitMessages = new LongAdder();
+    @Getter(AccessLevel.NONE) private final LongAdder errors = new LongAdder();
+    @Getter(AccessLevel.NONE) private final LongAdder suggestions = new LongAdder();
+
+    CommandMetrics(@NotNull Command command) {
+        this.command = command;
+    }
+
+    public void recordQueued(long nanos) {
+        queueLatency.record(nanos);
+    }
+
+    public void recordExecution(long nanos) {
+        invocations.increment();
+        executeLatency.record(nanos);
+    }
+
+    public void recordSuggestion(long nanos) {
+        suggestions.increment();
+        suggestLatency.record(nanos);
+    }
+
+    public void recordUsageFailure() {
+        usageFailures.increment();
+    }
+
+    public void recordExitMessage() {
+        exitMessages.increment();
+    }
+
+    public void recordError() {
+        errors.increment();
+    }
+
+    @Override
+    public String getAlias() {
+        return command.getAliases()[0];
+    }
+
+    @Override
+    public long getInvocations() {
+        return invocations.sum();
+    }
+
+    @Override
+    public long getUsageFailures() {
+        return usageFailures.sum();
+    }
+
+    @Override
+    public long getExitMessages() {
+        return exitMessages.sum();
+    }
+
+    @Override
+    public long getErrors() {
+        return errors.sum();
+    }
+
+    @Override
+    public long getSuggestions() {
+        return suggestions.sum();
+    }
+
+    @Override
+    public long getExecuteP50Micros() {
+        return micros(executeLatency.getPercentile(0.5));
+    }
+
+    @Override
+    public long getExecuteP99Micros() {
+        return micros(executeLatency.getPercentile(0.99));
+    }
+
+    @Override
+    public long getExecuteMaxMicros() {
+        return micros(executeLatency.getMax());
+    }
+
+    @Override
+    public long getQueueP50Micros() {
+        return micros(queueLatency.getPercentile(0.5));
+    }
+
+    @Override
+    public long getQueueP99Micros() {
+        return micros(queueLatency.getPercentile(0.99));
+    }
+
+    @Override
+    public long getQueueMaxMicros() {
+        return micros(queueLatency.getMax());
+    }
+
+    @Override
+    public long getSuggestP50Micros() {
+        return micros(suggestLatency.getPercentile(0.5));
+    }
+
+    @Override
+    public long getSuggestP99Micros() {
+        return micros(suggestLatency.getPercentile(0.99));
+    }
+
+    @Override
+    public long getSuggestMaxMicros() {
+        return micros(suggestLatency.getMax());
+    }
+
+    @Override
+    public void reset() {
+        invocations.reset();
+        usageFailures.reset();
+        exitMessages.reset();
+        errors.reset();
+        suggestions.reset();
+
+        executeLatency.reset();
+        queueLatency.reset();
+        suggestLatency.reset();
+    }
+
+    private static long micros(long nanos) {
+        return TimeUnit.NANOSECONDS.toMicros(nanos);
+    }
+
+}
@@ -0,0 +1,38 @@
+package me.vaperion.blade.metrics;
+
+/**
+ * The JMX view of {@link CommandMetrics}, durations are in microseconds.
+ */
+public interface CommandMetricsMBean {
+    String getAlias();
+
+    long getInvocations();
+
+    long getUsageFailures();
+
+    long getExitMessages();
+
+    long getErrors();
+
+    long getSuggestions();
+
+    long getExecuteP50Micros();
+
+    long getExecuteP99Micros();
+
+    long getExecuteMaxMicros();
+
+    long getQueueP50Micros();
+
+    long getQueueP99Micros();
+
+    long getQueueMaxMicros();
+
+    long getSuggestP50Micros();
+
+    long getSuggestP99Micros();
+
+    long getSuggestMaxMicros();
+
+    void reset();
+}
@@ -0,0 +1,140 @@
+package me.vaperion.blade.metrics;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAccumulator;
+
+/**
+ * A fixed-size, lock-free histogram of durations in nanoseconds.
+ * <p>
+ * Values are counted in log-linear buckets: every power of two is split into 8 buckets,
+ * so reported percentiles are within 12.5% of the recorded values. Durations of about 68 seconds
+ * and more share a last bucket, whose percentiles are reported as the maximum.
+ * <p>
+ * Buckets start in a single stripe, and like {@link java.util.concurrent.atomic.LongAdder}, more stripes are added
+ * (up to the amount of processors) once threads contend, each thread recording into the stripe its id hashes to.
+ */
+public final class LatencyHistogram {
+
+    private static final int SUB_BUCKET_BITS = 3;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int MAX_MAGNITUDE = 36; // 2^36 nanoseconds is about 68 seconds
+    private static final int OVERFLOW_BUCKET = (MAX_MAGNITUDE - SUB_BUCKET_BITS + 1) * SUB_BUCKETS;
+    private static final int BUCKETS = OVERFLOW_BUCKET + 1;
+
+    private static final int MAX_STRIPES = Math.min(16, Integer.highestOneBit(Runtime.getRuntime().availableProcessors() * 2 - 1));
+
+    private final AtomicReference<AtomicLongArray[]> stripes = new AtomicReference<>(new AtomicLongArray[]{new AtomicLongArray(BUCKETS)});
+    private final LongAccumulator max = new LongAccumulator(Math::max, 0L);
+
+    public void record(long nanos) {
+        if (nanos < 0) nanos = 0;
+
+        int bucket = bucketOf(nanos);
+        AtomicLongArray[] stripes = this.stripes.get();
+        AtomicLongArray stripe = stripes[probe() & (stripes.length - 1)];
+
+        long count = stripe.get(bucket);
+        if (!stripe.compareAndSet(bucket, count, count + 1)) {
+            stripe.incrementAndGet(bucket);
+            if (stripes.length < MAX_STRIPES) grow(stripes);
+        }
+
+        max.accumulate(nanos);
+    }
+
+    public long getCount() {
+        AtomicLongArray[] stripes = this.stripes.get();
+
+        long count = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            count += countOf(stripes, i);
+        }
+        return count;
+    }
+
+    public long getMax() {
+        return max.get();
+    }
+
+    /**
+     * @param quantile the quantile, between 0 and 1
+     * @return the upper bound of the bucket containing the quantile, or 0 if nothing was recorded
+     */
+    public long getPercentile(double quantile) {
+        AtomicLongArray[] stripes = this.stripes.get();
+
+        long total = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            total += countOf(stripes, i);
+        }
+        if (total == 0) return 0;
+
+        // values recorded in between the two passes can only move the quantile up, which is capped by the maximum
+        long target = Math.max(1, (long) Math.ceil(quantile * total)), seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += countOf(stripes, i);
+            if (seen >= target) return Math.min(upperBoundOf(i), getMax());
+        }
+
+        return getMax();
+    }
+
+    public void reset() {
+        for (AtomicLongArray stripe : stripes.get()) {
+            for (int i = 0; i < BUCKETS; i++) {
+                stripe.set(i, 0);
+            }
+        }
+        max.reset();
+    }
+
+    /**
+     * Doubles the amount of stripes, keeping the existing ones so no recorded value is lost.
+     * If another thread grew the stripes in the meantime, its stripes are kept instead.
+     */
+    private void grow(AtomicLongArray[] current) {
+        AtomicLongArray[] grown = new AtomicLongArray[current.length * 2];
+        System.arraycopy(current, 0, grown, 0, current.length);
+        for (int i = current.length; i < grown.length; i++) {
+            grown[i] = new AtomicLongArray(BUCKETS);
+        }
+
+        stripes.compareAndSet(current, grown);
+    }
+
+    private static long countOf(AtomicLongArray[] stripes, int bucket) {
+        long count = 0;
+        for (AtomicLongArray stripe : stripes) {
+            count += stripe.get(bucket);
+        }
+        return count;
+    }
+
+    @SuppressWarnings("deprecation") // Thread#threadId only exists since Java 19
+    private static int probe() {
+        int hash = (int) Thread.currentThread().getId() * 0x9E3779B9;
+        return hash ^ (hash >>> 16);
+    }
+
+    private static int bucketOf(long value) {
+        if (value < SUB_BUCKETS) return (int) value;
+
+        int magnitude = 63 - Long.numberOfLeadingZeros(value);
+        if (magnitude >= MAX_MAGNITUDE) return OVERFLOW_BUCKET;
+
+        int sub = (int) (value >>> (magnitude - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+        return (magnitude - SUB_BUCKET_BITS + 1) * SUB_BUCKETS + sub;
+    }
+
+    private static long upperBoundOf(int bucket) {
+        if (bucket < SUB_BUCKETS) return bucket;
+        if (bucket == OVERFLOW_BUCKET) return Long.MAX_VALUE;
+
+        int magnitude = bucket / SUB_BUCKETS + SUB_BUCKET_BITS - 1;
+        long sub = bucket % SUB_BUCKETS;
+        long lower = (SUB_BUCKETS + sub) << (magnitude - SUB_BUCKET_BITS);
+        return lower + (1L << (magnitude - SUB_BUCKET_BITS)) - 1;
+    }
+
+}
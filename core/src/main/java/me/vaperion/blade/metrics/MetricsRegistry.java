@@ -0,0 +1,106 @@
+package me.vaperion.blade.metrics;
+
+import lombok.RequiredArgsConstructor;
+import me.vaperion.blade.Blade;
+import me.vaperion.blade.command.Command;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Holds the {@link CommandMetrics} of every command, which are registered as MBeans if enabled in the configuration.
+ */
+@RequiredArgsConstructor
+public class MetricsRegistry {
+
+    private static final String DOMAIN = "me.vaperion.blade";
+
+    private final Blade blade;
+    private final Map<Command, CommandMetrics> metrics = new ConcurrentHashMap<>();
+    // The command whose MBean is registered under each name, so commands with the same name don't replace each other's
+    private final Map<ObjectName, Command> names = new ConcurrentHashMap<>();
+
+    /**
+     * Creates the metrics of a command when it's registered.
+     */
+    public void add(@NotNull Command command) {
+        metrics.computeIfAbsent(command, this::create);
+    }
+
+    /**
+     * @return the metrics of the command, or metrics that aren't kept if the command was already unregistered
+     *         (e.g. by a reload while it was executing), so recording never brings it back
+     */
+    @NotNull
+    public CommandMetrics get(@NotNull Command command) {
+        CommandMetrics found = metrics.get(command);
+        return found != null ? found : new CommandMetrics(command);
+    }
+
+    @Nullable
+    public CommandMetrics find(@NotNull Command command) {
+        return metrics.get(command);
+    }
+
+    @NotNull
+    public Collection<CommandMetrics> getAll() {
+        return Collections.unmodifiableCollection(metrics.values());
+    }
+
+    public void remove(@NotNull Command command) {
+        if (metrics.remove(command) == null || !blade.getConfiguration().isJmxMetrics()) return;
+
+        try {
+            ObjectName name = nameOf(command);
+            if (!names.remove(name, command)) return;
+
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            if (server.isRegistered(name)) server.unregisterMBean(name);
+        } catch (JMException ex) {
+            System.err.println("An exception was thrown while unregistering the metrics of command " + command.getAliases()[0]);
+            ex.printStackTrace();
+        }
+    }
+
+    public void reset() {
+        metrics.values().forEach(CommandMetrics::reset);
+    }
+
+    private CommandMetrics create(Command command) {
+        CommandMetrics created = new CommandMetrics(command);
+        if (!blade.getConfiguration().isJmxMetrics()) return created;
+
+        try {
+            ObjectName name = nameOf(command);
+            if (names.putIfAbsent(name, command) != null) {
+                System.err.println("The metrics of command " + command.getAliases()[0] + " are not exposed over JMX, another command has the same name");
+                return created;
+            }
+
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            if (server.isRegistered(name)) server.unregisterMBean(name); // left over from a previous Blade instance, e.g. after a plugin reload
+            server.registerMBean(created, name);
+        } catch (JMException ex) {
+            System.err.println("An exception was thrown while registering the metrics of command " + command.getAliases()[0]);
+            ex.printStackTrace();
+        }
+
+        return created;
+    }
+
+    private ObjectName nameOf(Command command) throws JMException {
+        return new ObjectName(DOMAIN + ":type=Command"
+              + ",plugin=" + ObjectName.quote(blade.getConfiguration().getFallbackPrefix())
+              + ",name=" + ObjectName.quote(command.getAliases()[0])
+              + ",method=" + ObjectName.quote(command.getDefinition().getQualifiedName()));
+    }
+
+}
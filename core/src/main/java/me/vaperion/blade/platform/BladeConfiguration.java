@@ -2,8 +2,18 @@ package me.vaperion.blade.platform;
 
 import lombok.Getter;
 import lombok.Setter;
+import me.vaperion.blade.command.Command;
+import me.vaperion.blade.context.WrappedSender;
+import me.vaperion.blade.exception.BladeExitMessage;
+import me.vaperion.blade.service.PermissionCache;
+import me.vaperion.blade.util.AsyncExecutor;
+import me.vaperion.blade.util.AsyncPool;
 import me.vaperion.blade.util.Preconditions;
+import me.vaperion.blade.util.SerialExecutor;
+import org.jetbrains.annotations.NotNull;
 
+import java.util.LinkedHashMap;
+import java.util.Map;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.function.Consumer;
@@ -20,12 +30,64 @@ public final class BladeConfiguration {
     private String fallbackPrefix;
     private String defaultPermissionMessage = "You don't have permission to perform this command.";
     private long executionTimeWarningThreshold = 5L;
+    private boolean jmxMetrics;
 
     private Consumer<Runnable> asyncExecutor = EXECUTOR_SERVICE::execute;
+    private SerialExecutor serialExecutor;
+    private final Map<String, AsyncPool> asyncPools = new LinkedHashMap<>();
 
     private HelpGenerator helpGenerator;
     private TabCompleter tabCompleter;
 
+    private final PermissionCache permissionCache = new PermissionCache();
+
+    /**
+     * Runs {@link me.vaperion.blade.annotation.command.Async} commands on virtual threads if the runtime supports them (Java 21+),
+     * or on a pool of platform threads otherwise, see {@link AsyncExecutor}.
+     *
+     * @param maximumConcurrency the amount of commands that may run at once, or 0 for no limit
+     * @return the executor, which exposes how many commands are waiting and running
+     */
+    public AsyncExecutor useVirtualThreads(int maximumConcurrency) {
+        AsyncExecutor executor = new AsyncExecutor(maximumConcurrency);
+        this.asyncExecutor = executor;
+        return executor;
+    }
+
+    /**
+     * Runs the {@link me.vaperion.blade.annotation.command.Async} commands of each sender one at a time and in order,
+     * on the async executor, while commands of different senders still run in parallel. See {@link SerialExecutor}.
+     *
+     * @param maximumQueued  the amount of commands a sender may have waiting behind its running command
+     * @param overflowPolicy what happens to commands sent while the queue of the sender is full
+     * @return the executor, which exposes how many senders have running commands
+     */
+    public SerialExecutor serializeAsyncPerSender(int maximumQueued, @NotNull SerialExecutor.OverflowPolicy overflowPolicy) {
+        SerialExecutor executor = new SerialExecutor(runnable -> asyncExecutor.accept(runnable), maximumQueued, overflowPolicy);
+        this.serialExecutor = executor;
+        return executor;
+    }
+
+    /**
+     * Submits an {@link me.vaperion.blade.annotation.command.Async} command of the sender to its pool (or the async executor),
+     * serialized per sender if configured.
+     *
+     * @throws BladeExitMessage if the command was rejected because the sender or the pool has too many commands waiting
+     */
+    public void executeAsync(@NotNull Command command, @NotNull WrappedSender<?> sender, @NotNull Runnable runnable) throws BladeExitMessage {
+        AsyncPool pool = command.getAsyncPool().isEmpty() ? null : asyncPools.get(command.getAsyncPool());
+
+        if (serialExecutor != null) {
+            serialExecutor.execute(sender.getKey(), pool == null
+                  ? (task, onDropped) -> asyncExecutor.accept(task)
+                  : (task, onDropped) -> pool.execute(task, command.getAsyncPriority(), onDropped), runnable);
+        } else if (pool != null) {
+            pool.execute(runnable, command.getAsyncPriority());
+        } else {
+            asyncExecutor.accept(runnable);
+        }
+    }
+
     public void validate() {
         Preconditions.checkNotNull(pluginInstance, "Plugin instance cannot be null.");
         Preconditions.checkNotNull(fallbackPrefix, "Fallback prefix cannot be null.");
@@ -12,6 +12,27 @@ public interface HelpGenerator {
     @NotNull
     List<String> generate(@NotNull Context context, @NotNull List<Command> commands);
 
+    /**
+     * @return whether the output only depends on the alias, the {@link #getPage(Context) page} and the commands visible to the sender,
+     * so it can be cached by the {@link me.vaperion.blade.service.HelpIndex}
+     */
+    default boolean isCacheable() {
+        return false;
+    }
+
+    /**
+     * @return the page requested by the first argument, or the first page if it's missing or not a number
+     */
+    default int getPage(@NotNull Context context) {
+        String argument = context.argument(0);
+        if (argument == null) return 1;
+        try {
+            return Integer.parseInt(argument);
+        } catch (NumberFormatException e) {
+            return 1;
+        }
+    }
+
     final class Default implements HelpGenerator {
         @NotNull
         @Override
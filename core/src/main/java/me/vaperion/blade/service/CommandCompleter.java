@@ -2,14 +2,22 @@ package me.vaperion.blade.service;
 
 import lombok.RequiredArgsConstructor;
 import me.vaperion.blade.Blade;
+import me.vaperion.blade.annotation.argument.ThreadSafe;
 import me.vaperion.blade.argument.Argument;
 import me.vaperion.blade.argument.Argument.Type;
 import me.vaperion.blade.argument.ArgumentProvider;
 import me.vaperion.blade.command.Command;
 import me.vaperion.blade.command.Parameter;
+import me.vaperion.blade.command.ParsePlan;
+import me.vaperion.blade.command.ParsePlan.Slot;
 import me.vaperion.blade.context.Context;
 import me.vaperion.blade.context.WrappedSender;
 import me.vaperion.blade.exception.BladeExitMessage;
+import me.vaperion.blade.service.CommandParser.SplitArguments;
+import me.vaperion.blade.trace.Phase;
+import me.vaperion.blade.trace.Span;
+import me.vaperion.blade.trace.Tracing;
+import me.vaperion.blade.util.CommandLine;
 import me.vaperion.blade.util.Tuple;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
@@ -21,15 +29,18 @@ import java.util.function.Supplier;
 @RequiredArgsConstructor
 public class CommandCompleter {
 
+    private static final String[] NO_ARGUMENTS = new String[0];
+
     private final Blade blade;
 
     @Nullable
     public List<String> suggest(@NotNull String commandLine, @NotNull Supplier<WrappedSender<?>> senderSupplier) {
+        CommandLine line = CommandLine.parseForCompletion(commandLine);
+
         List<String> suggestions = new ArrayList<>();
-        suggestSubCommand(suggestions, commandLine, senderSupplier);
+        suggestSubCommand(suggestions, line, senderSupplier);
 
-        String[] commandParts = commandLine.split(" ");
-        Tuple<Command, String> resolved = blade.getResolver().resolveCommand(commandParts);
+        Tuple<Command, String> resolved = blade.getResolver().resolveCommand(line);
 
         if (resolved == null) return suggestions.isEmpty() ? null : suggestions;
         if (resolved.getLeft().isContextBased())
@@ -38,94 +49,182 @@ public class CommandCompleter {
         Command command = resolved.getLeft();
         String foundAlias = resolved.getRight();
 
-        List<String> argList = new ArrayList<>(Arrays.asList(commandParts));
-        argList.subList(0, Math.max(1, foundAlias.split(" ").length)).clear();
-
-        if (commandLine.endsWith(" ")) argList.add("");
-        String[] actualArguments = argList.toArray(new String[0]);
-
-        Context context = new Context(blade, senderSupplier.get(), foundAlias, actualArguments);
+        int from = Math.min(line.size(), CommandResolver.countWords(foundAlias));
+        Context context = new Context(blade, senderSupplier.get(), foundAlias, line, from);
         if (!blade.getPermissionTester().testPermission(context, command))
             return suggestions.isEmpty() ? null : suggestions;
 
-        suggest(suggestions, context, command, actualArguments);
+        suggest(suggestions, context, command, line, from);
         return suggestions;
     }
 
     public void suggest(@NotNull List<String> suggestions, @NotNull Context context,
                         @NotNull Command command, @NotNull String[] args) throws BladeExitMessage {
+        suggest(suggestions, context, command, CommandLine.of(args), 0);
+    }
+
+    /**
+     * Suggests values for the last token of the command line, the arguments of the command start at the given token index.
+     * The command line is expected to be tokenized for completion, see {@link CommandLine#parseForCompletion(String)}.
+     */
+    public void suggest(@NotNull List<String> suggestions, @NotNull Context context,
+                        @NotNull Command command, @NotNull CommandLine line, int from) throws BladeExitMessage {
         if (command.isContextBased()) return;
+        suggest(suggestions, context, command, line, from, null, null);
+    }
 
-        try {
-            List<String> argumentList = new ArrayList<>(Arrays.asList(args));
-            List<String> arguments = command.isQuoted() ? CommandParser.combineQuotedArguments(argumentList) : argumentList;
+    /**
+     * Suggests values for a parameter of the command, for platforms that already know which parameter is being completed,
+     * such as from the argument nodes of a Brigadier tree. Neither the command nor its permission is resolved again.
+     */
+    public void suggest(@NotNull List<String> suggestions, @NotNull Context context,
+                        @NotNull Command command, @NotNull Slot slot, @NotNull String argument) throws BladeExitMessage {
+        suggest(suggestions, context, command, null, 0, slot, argument);
+    }
 
-            Map<Character, String> flags = blade.getParser().parseFlags(command, arguments);
-            for (Map.Entry<Character, String> entry : flags.entrySet()) {
-                arguments.remove("-" + entry.getKey());
+    private void suggest(List<String> suggestions, Context context, Command command,
+                         CommandLine line, int from, Slot slot, String argument) throws BladeExitMessage {
+        long start = System.nanoTime();
+        Span span = Tracing.begin(Phase.SUGGEST);
+        Throwable thrown = null;
 
-                boolean isFlag = command.getFlagParameters().stream().anyMatch(flag -> flag.getFlag().value() == entry.getKey());
-                if (!isFlag || !"true".equals(entry.getValue())) arguments.remove(entry.getValue());
+        try {
+            if (slot != null) {
+                suggest(suggestions, context, slot, argument);
+            } else {
+                Tuple<Slot, String> target = findCompletionTarget(command, line, from);
+                if (target != null) suggest(suggestions, context, target.getLeft(), target.getRight());
             }
+        } catch (BladeExitMessage ex) {
+            thrown = ex;
+            throw ex;
+        } catch (Exception ex) {
+            thrown = ex;
+            blade.getMetrics().get(command).recordError();
+            ex.printStackTrace();
+            throw new BladeExitMessage("An exception was thrown while parsing your arguments.");
+        } finally {
+            blade.getMetrics().get(command).recordSuggestion(System.nanoTime() - start);
+            span.finish(context, command.getAliases()[0], false, Tracing.outcomeOf(thrown), null);
+        }
+    }
 
-            if (arguments.size() == 0) return;
-            if (command.getParameterProviders().size() < arguments.size()) return;
+    /**
+     * Checks whether the command line can be completed from any thread, which is the case if the provider
+     * that would suggest the current argument is annotated with {@link ThreadSafe} (or there is no such provider),
+     * and the permissions of the resolved command and of the suggested subcommands can be {@link PermissionTester#canTestAsync tested async}.
+     */
+    public boolean canSuggestAsync(@NotNull String commandLine) {
+        CommandLine line = CommandLine.parseForCompletion(commandLine);
+
+        if (line.size() > 1) {
+            List<Command> commandsWithBase = blade.getAliasToCommands().get(line.get(0).toLowerCase(Locale.ROOT));
+            if (commandsWithBase != null) {
+                for (Command command : commandsWithBase) {
+                    if (!command.isHidden() && !blade.getPermissionTester().canTestAsync(command)) return false;
+                }
+            }
+        }
 
-            int index = Math.max(0, arguments.size() - 1);
-            String argument = index < arguments.size() ? arguments.get(index) : "";
+        Tuple<Command, String> resolved = blade.getResolver().resolveCommand(line);
+        if (resolved == null || resolved.getLeft().isContextBased()) return true;
+        if (!blade.getPermissionTester().canTestAsync(resolved.getLeft())) return false;
 
-            Parameter parameter = index < command.getParameters().size() ? command.getParameters().get(index) : null;
-            ArgumentProvider<?> parameterProvider = parameter != null && parameter.hasCustomCompleter()
-                  ? parameter.getCustomCompleter() : command.getParameterProviders().get(index);
+        int from = Math.min(line.size(), CommandResolver.countWords(resolved.getRight()));
+        Tuple<Slot, String> target = findCompletionTarget(resolved.getLeft(), line, from);
+        return target == null || target.getLeft().isThreadSafe();
+    }
 
-            if (parameterProvider == null) {
-                throw new BladeExitMessage("Could not find provider for argument " + index + ".");
-            }
+    /**
+     * Finds the parameter the last token of the command line belongs to.
+     *
+     * @return the slot of the parameter and the current input, or null if there's nothing to suggest
+     */
+    @Nullable
+    private Tuple<Slot, String> findCompletionTarget(Command command, CommandLine line, int from) {
+        CommandLine tokens = line;
+        int start = from;
 
-            Argument bladeArgument = new Argument(parameter);
-            bladeArgument.setType(index < arguments.size() ? Type.PROVIDED : Type.OPTIONAL);
-            bladeArgument.setString(argument);
-            if (parameter != null) bladeArgument.getData().addAll(parameter.getData());
+        if (command.isQuoted()) {
+            tokens = CommandLine.parseQuoted(line.getLine(), from < line.size() ? line.start(from) : line.getLine().length(), true);
+            start = 0;
+        }
 
-            List<String> suggested = parameterProvider.suggest(context, bladeArgument);
-            suggestions.addAll(suggested);
-        } catch (BladeExitMessage ex) {
-            throw ex;
-        } catch (Exception ex) {
-            ex.printStackTrace();
-            throw new BladeExitMessage("An exception was thrown while parsing your arguments.");
+        SplitArguments split = blade.getParser().splitArguments(command, tokens, start);
+        if (split.getPendingFlag() != null) return null;
+        if (split.getLastTokenFlag() != null) return new Tuple<>(split.getLastTokenFlag(), tokens.get(tokens.size() - 1));
+
+        int index = split.getCount() - 1;
+        if (index < 0 || split.position(index) != tokens.size() - 1) return null; // the last token is a flag
+
+        ParsePlan plan = command.getParsePlan();
+        if (plan.getPositionalSlots().length <= index) return null;
+
+        return new Tuple<>(plan.getPositionalSlots()[index], split.get(index));
+    }
+
+    private void suggest(List<String> suggestions, Context context, Slot slot, String argument) throws BladeExitMessage {
+        Parameter parameter = slot.getParameter();
+        ArgumentProvider<?> parameterProvider = parameter.hasCustomCompleter() ? parameter.getCustomCompleter() : slot.getProvider();
+
+        if (parameterProvider == null) {
+            throw new BladeExitMessage("Could not find provider for argument " + parameter.getName() + ".");
         }
+
+        Argument bladeArgument = new Argument(parameter);
+        bladeArgument.setType(Type.PROVIDED);
+        bladeArgument.setString(argument);
+        bladeArgument.getData().addAll(parameter.getData());
+
+        List<String> suggested = blade.getSuggestionCache().suggest(slot, context, argument, () -> parameterProvider.suggest(context, bladeArgument));
+        suggestions.addAll(suggested);
     }
 
     public void suggestSubCommand(@NotNull List<String> suggestions, @NotNull String commandLine, @NotNull Supplier<WrappedSender<?>> senderSupplier) throws BladeExitMessage {
-        String[] commandLineParts = commandLine.split(" ");
-        if (commandLineParts.length == 0) return;
-        String baseCommand = commandLineParts[0];
+        suggestSubCommand(suggestions, CommandLine.parseForCompletion(commandLine), senderSupplier);
+    }
 
-        List<Command> commandsWithBase = blade.getAliasToCommands().get(baseCommand);
+    public void suggestSubCommand(@NotNull List<String> suggestions, @NotNull CommandLine commandLine, @NotNull Supplier<WrappedSender<?>> senderSupplier) throws BladeExitMessage {
+        if (commandLine.isEmpty()) return;
+        String baseCommand = commandLine.get(0);
+
+        List<Command> commandsWithBase = blade.getAliasToCommands().get(baseCommand.toLowerCase(Locale.ROOT));
         if (commandsWithBase == null) return;
 
-        int currentWordIndex = commandLineParts.length - 1 + (commandLine.endsWith(" ") ? 1 : 0);
+        int currentWordIndex = commandLine.size() - 1;
         if (currentWordIndex == 0) return;
 
+        String lowerCommandLine = commandLine.getLine().toLowerCase(Locale.ROOT);
+        WrappedSender<?> sender = null;
+
         for (Command bladeCommand : commandsWithBase) {
             if (bladeCommand.isHidden()) continue;
 
-            Context context = new Context(blade, senderSupplier.get(), bladeCommand.getAliases()[0], new String[0]);
+            if (sender == null) sender = senderSupplier.get();
+            Context context = new Context(blade, sender, bladeCommand.getAliases()[0], NO_ARGUMENTS);
             if (!blade.getPermissionTester().testPermission(context, bladeCommand)) continue;
 
             for (String alias : bladeCommand.getAliases()) {
-                if (!alias.startsWith(commandLine.toLowerCase(Locale.ROOT))) continue;
-
-                String[] aliasWords = alias.split(" ");
-                if (aliasWords.length < currentWordIndex) continue;
+                if (!alias.startsWith(lowerCommandLine)) continue;
 
-                String currentWord = aliasWords[currentWordIndex];
-                if (currentWord.isEmpty() || suggestions.contains(currentWord)) continue;
+                String currentWord = wordAt(alias, currentWordIndex);
+                if (currentWord == null || currentWord.isEmpty() || suggestions.contains(currentWord)) continue;
 
                 suggestions.add(currentWord);
             }
         }
     }
 
+    @Nullable
+    private static String wordAt(String alias, int index) {
+        int start = 0;
+        for (int word = 0; word < index; word++) {
+            start = alias.indexOf(' ', start) + 1;
+            if (start == 0) return null;
+        }
+
+        int end = alias.indexOf(' ', start);
+        return alias.substring(start, end == -1 ? alias.length() : end);
+    }
+
 }
\ No newline at end of file
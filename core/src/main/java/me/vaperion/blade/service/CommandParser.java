@@ -1,71 +1,107 @@
 package me.vaperion.blade.service;
 
+import lombok.Getter;
 import lombok.RequiredArgsConstructor;
 import me.vaperion.blade.Blade;
 import me.vaperion.blade.argument.Argument;
 import me.vaperion.blade.argument.Argument.Type;
 import me.vaperion.blade.argument.ArgumentProvider;
 import me.vaperion.blade.command.Command;
-import me.vaperion.blade.command.Parameter;
 import me.vaperion.blade.command.Parameter.FlagParameter;
+import me.vaperion.blade.command.ParsePlan;
+import me.vaperion.blade.command.ParsePlan.Slot;
 import me.vaperion.blade.context.Context;
 import me.vaperion.blade.exception.BladeExitMessage;
 import me.vaperion.blade.exception.BladeUsageMessage;
+import me.vaperion.blade.trace.Phase;
+import me.vaperion.blade.trace.Span;
+import me.vaperion.blade.trace.Tracing;
+import me.vaperion.blade.util.CommandLine;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
 import java.util.*;
 
 @RequiredArgsConstructor
 public class CommandParser {
 
+    private static final String[] NO_FLAG_VALUES = new String[0];
+
     private final Blade blade;
 
     @NotNull
-    public List<Object> parseArguments(@NotNull Command command, @NotNull Context context, @NotNull String[] argArray) throws BladeExitMessage {
-        List<String> args = new ArrayList<>(Arrays.asList(argArray));
-        List<Object> result = new ArrayList<>(command.getParameters().size());
+    public Object[] parseArguments(@NotNull Command command, @NotNull Context context, @NotNull String[] argArray) throws BladeExitMessage {
+        return parseArguments(command, context, CommandLine.of(argArray), 0);
+    }
+
+    /**
+     * Parses the arguments of the command, starting at the given token of the command line, into an array that can be
+     * passed to its invoker directly. If the command has a sender parameter, the first element is left empty for the caller to fill in.
+     */
+    @NotNull
+    public Object[] parseArguments(@NotNull Command command, @NotNull Context context, @NotNull CommandLine line, int from) throws BladeExitMessage {
+        Span span = Tracing.begin(Phase.PARSE);
+        Throwable thrown = null;
 
         try {
-            List<String> arguments = command.isQuoted() ? combineQuotedArguments(args) : args;
-            Map<Character, String> flags = parseFlags(command, arguments);
+            return parse(command, context, line, from);
+        } catch (Throwable t) {
+            thrown = t;
+            throw t;
+        } finally {
+            span.finish(context, command.getAliases()[0], command.isAsync(), Tracing.outcomeOf(thrown), null);
+        }
+    }
 
-            int argIndex = 0, providerIndex = 0;
-            for (Parameter parameter : command.getParameters()) {
-                boolean flag = parameter instanceof FlagParameter;
-                Argument bladeArgument = new Argument(parameter);
+    private Object[] parse(Command command, Context context, CommandLine line, int from) throws BladeExitMessage {
+        ParsePlan plan = command.getParsePlan();
+        Object[] result = new Object[plan.getArity()];
+
+        try {
+            CommandLine arguments = line;
+            int start = from;
+
+            if (command.isQuoted()) {
+                arguments = CommandLine.parseQuoted(line.getLine(), from < line.size() ? line.start(from) : line.getLine().length(), false);
+                start = 0;
+            }
+
+            SplitArguments split = splitArguments(command, arguments, start);
+            if (split.getPendingFlag() != null)
+                throw new BladeExitMessage("The '-" + split.getPendingFlag().getFlag().value() + "' flag requires a value.");
+
+            int count = split.getCount();
+
+            for (Slot slot : plan.getSlots()) {
+                Argument bladeArgument = new Argument(slot.getParameter());
+                int argIndex = slot.getPosition();
 
                 String data;
-                if (!flag) {
-                    if (arguments.size() > argIndex) {
-                        data = arguments.get(argIndex);
+                if (!slot.isFlag()) {
+                    if (count > argIndex) {
+                        data = slot.isText() ? split.rest(argIndex) : split.get(argIndex);
                         bladeArgument.setType(Type.PROVIDED);
-                    } else if (parameter.isOptional()) {
-                        data = parameter.getDefault();
+                    } else if (slot.isOptional()) {
+                        data = slot.getDefaultValue();
                         bladeArgument.setType(Type.OPTIONAL);
                     } else throw new BladeUsageMessage();
-
-                    if (parameter.isText())
-                        data = arguments.size() > argIndex ? String.join(" ", arguments.subList(argIndex, arguments.size())) : data;
-                } else data = ((FlagParameter) parameter).extractFrom(flags);
+                } else data = ((FlagParameter) slot.getParameter()).extract(split.getFlagValue(slot));
                 bladeArgument.setString(data);
 
                 try {
-                    ArgumentProvider<?> provider = command.getProviders().get(providerIndex);
+                    ArgumentProvider<?> provider = slot.getProvider();
                     if (provider == null)
-                        throw new BladeExitMessage("Could not find provider for type '" + parameter.getType().getCanonicalName() + "'.");
+                        throw new BladeExitMessage("Could not find provider for type '" + slot.getParameter().getType().getCanonicalName() + "'.");
 
                     Object parsed;
-                    if (bladeArgument.getType() == Type.OPTIONAL && bladeArgument.getParameter().defaultsToNull())
+                    if (bladeArgument.getType() == Type.OPTIONAL && slot.isDefaultsToNull())
                         parsed = null;
                     else
-                        parsed = provider.provide(context, bladeArgument);
-                    result.add(parsed);
+                        parsed = provide(context, command, slot, provider, bladeArgument);
+                    result[slot.getIndex()] = parsed;
 
-                    if (parsed == null && !parameter.defaultsToNull() && !parameter.ignoreFailedArgumentParse())
+                    if (parsed == null && !slot.isDefaultsToNull() && !slot.isIgnoreFailedArgumentParse())
                         throw new BladeUsageMessage();
-
-                    if (!flag) argIndex++;
-                    providerIndex++;
                 } catch (BladeExitMessage ex) {
                     throw ex;
                 } catch (Exception ex) {
@@ -83,83 +119,180 @@ public class CommandParser {
         }
     }
 
+    private Object provide(Context context, Command command, Slot slot, ArgumentProvider<?> provider, Argument argument) throws Exception {
+        Span span = Tracing.begin(Phase.PROVIDER);
+        Throwable thrown = null;
+
+        try {
+            return provider.provide(context, argument);
+        } catch (Throwable t) {
+            thrown = t;
+            throw t;
+        } finally {
+            span.finish(context, command.getAliases()[0], command.isAsync(), Tracing.outcomeOf(thrown), slot.getParameter().getName());
+        }
+    }
+
+    /**
+     * Separates the flags of the command from its positional arguments in a single forward pass, starting at the given token.
+     * <p>
+     * Supported forms are {@code -f}, {@code -f value}, combined flags like {@code -abc} (where only the last one may take
+     * a value), {@code --name}, {@code --name value} and {@code --name=value}. Tokens that look like flags, but aren't
+     * flags of the command (such as negative numbers), are kept as positional arguments.
+     */
     @NotNull
-    public Map<Character, String> parseFlags(@NotNull Command command, @NotNull List<String> args) throws BladeExitMessage {
-        Map<Character, String> map = new LinkedHashMap<>();
-        Character pendingFlag = null;
+    public SplitArguments splitArguments(@NotNull Command command, @NotNull CommandLine line, int from) {
+        ParsePlan plan = command.getParsePlan();
+        int size = line.size();
 
-        Iterator<String> it = args.iterator();
-        while (it.hasNext()) {
-            String arg = it.next();
+        SplitArguments split = new SplitArguments(line, new int[Math.max(0, size - from)],
+              plan.hasFlags() ? new String[plan.getFlagSlots().length] : NO_FLAG_VALUES);
+        Slot pending = null;
 
-            if (pendingFlag != null) {
-                it.remove();
-                map.put(pendingFlag, arg);
-                pendingFlag = null;
+        for (int i = from; i < size; i++) {
+            split.lastTokenFlag = null;
+
+            if (pending != null) {
+                split.flagValues[pending.getFlagIndex()] = line.get(i);
+                split.lastTokenFlag = pending;
+                pending = null;
+                continue;
             }
 
-            if (arg.length() == 2 && arg.charAt(0) == '-') {
-                char flag = arg.charAt(1);
+            int length = line.length(i);
+            if (plan.hasFlags() && length >= 2 && line.charAt(i, 0) == '-') {
+                Slot last = line.charAt(i, 1) == '-'
+                      ? splitLongFlag(plan, split, line, i)
+                      : splitShortFlags(plan, split, line, i, length);
 
-                FlagParameter flagParameter = command.getFlagParameters().stream()
-                      .filter(param -> param.getFlag().value() == flag)
-                      .findFirst().orElse(null);
-                if (flagParameter == null) continue;
+                if (last != null) {
+                    if (!last.isBooleanFlag() && split.flagValues[last.getFlagIndex()] == null) pending = last;
+                    continue;
+                }
+            }
 
-                it.remove();
+            split.positions[split.count++] = i;
+        }
 
-                if (flagParameter.isBooleanFlag())
-                    map.put(flag, "true");
-                else pendingFlag = flag;
-            }
+        if (pending != null) split.pendingFlag = (FlagParameter) pending.getParameter();
+        return split;
+    }
+
+    @Nullable
+    private Slot splitShortFlags(ParsePlan plan, SplitArguments split, CommandLine line, int token, int length) {
+        // every character must be a flag of the command, and only the last one may take a value
+        for (int offset = 1; offset < length; offset++) {
+            Slot slot = plan.getFlagSlot(line.charAt(token, offset));
+            if (slot == null || (offset != length - 1 && !slot.isBooleanFlag())) return null;
+        }
+
+        Slot slot = null;
+        for (int offset = 1; offset < length; offset++) {
+            slot = plan.getFlagSlot(line.charAt(token, offset));
+            split.flagValues[slot.getFlagIndex()] = slot.isBooleanFlag() ? "true" : null;
         }
 
-        if (pendingFlag != null)
-            throw new BladeExitMessage("The '-" + pendingFlag + "' flag requires a value.");
+        return slot;
+    }
+
+    @Nullable
+    private Slot splitLongFlag(ParsePlan plan, SplitArguments split, CommandLine line, int token) {
+        String argument = line.get(token);
+        int separator = argument.indexOf('=');
+
+        Slot slot = plan.getFlagSlot(separator == -1 ? argument.substring(2) : argument.substring(2, separator));
+        if (slot == null) return null;
+
+        if (separator != -1) split.flagValues[slot.getFlagIndex()] = argument.substring(separator + 1);
+        else split.flagValues[slot.getFlagIndex()] = slot.isBooleanFlag() ? "true" : null;
 
+        return slot;
+    }
+
+    /**
+     * Removes the flags of the command from the given arguments, see {@link #splitArguments(Command, CommandLine, int)}.
+     *
+     * @return the value of every flag that was present, keyed by its character
+     */
+    @NotNull
+    public Map<Character, String> parseFlags(@NotNull Command command, @NotNull List<String> args) throws BladeExitMessage {
+        SplitArguments split = splitArguments(command, CommandLine.of(args.toArray(new String[0])), 0);
+        if (split.getPendingFlag() != null)
+            throw new BladeExitMessage("The '-" + split.getPendingFlag().getFlag().value() + "' flag requires a value.");
+
+        args.clear();
+        for (int i = 0; i < split.getCount(); i++) args.add(split.get(i));
+
+        Map<Character, String> map = new LinkedHashMap<>();
+        for (Slot slot : command.getParsePlan().getFlagSlots()) {
+            String value = split.getFlagValue(slot);
+            if (value != null) map.putIfAbsent(((FlagParameter) slot.getParameter()).getFlag().value(), value);
+        }
         return map;
     }
 
     @NotNull
     public static List<String> combineQuotedArguments(@NotNull List<String> args) {
-        String whole = String.join(" ", args);
-        List<String> arguments = new ArrayList<>(args.size());
+        CommandLine line = CommandLine.parseQuoted(String.join(" ", args), 0, false);
+        return new ArrayList<>(Arrays.asList(line.toArray(0)));
+    }
 
-        char boundary = '\0';
-        StringBuilder building = new StringBuilder();
+    /**
+     * The result of {@link #splitArguments(Command, CommandLine, int)}: the token indices of the positional arguments
+     * and the values of the flags that were present.
+     */
+    public static final class SplitArguments {
+        @Getter private final CommandLine line;
+        private final int[] positions;
+        private final String[] flagValues;
+        @Getter private int count;
+
+        /**
+         * The flag which took the last token as its value, if any.
+         */
+        @Getter @Nullable private Slot lastTokenFlag;
+
+        /**
+         * The flag at the end of the line which is still missing its value.
+         */
+        @Getter @Nullable private FlagParameter pendingFlag;
+
+        private SplitArguments(CommandLine line, int[] positions, String[] flagValues) {
+            this.line = line;
+            this.positions = positions;
+            this.flagValues = flagValues;
+        }
 
-        for (char c : whole.toCharArray()) {
-            if (c == '"' || c == '\'') {
-                if (boundary == '\0') {
-                    boundary = c;
-                    building.setLength(0);
-                    continue;
-                }
+        @NotNull
+        public String get(int index) {
+            return line.get(position(index));
+        }
 
-                if (boundary == c) {
-                    boundary = '\0';
-                    arguments.add(building.toString());
-                    building.setLength(0);
-                    continue;
-                }
-            }
+        public int position(int index) {
+            if (index < 0 || index >= count) throw new IndexOutOfBoundsException("Argument index " + index + " out of bounds for " + count + " arguments");
+            return positions[index];
+        }
 
-            if (c == ' ' && boundary == '\0') {
-                if (building.length() > 0) {
-                    arguments.add(building.toString());
-                    building.setLength(0);
-                }
-                continue;
+        /**
+         * Returns the positional arguments starting at the given index joined by spaces, as a slice of the line if they are contiguous.
+         */
+        @NotNull
+        public String rest(int index) {
+            int first = position(index), last = positions[count - 1];
+            if (last - first == count - 1 - index) return line.slice(first, last + 1);
+
+            StringBuilder builder = new StringBuilder();
+            for (int i = index; i < count; i++) {
+                if (i != index) builder.append(' ');
+                builder.append(line.get(positions[i]));
             }
-
-            building.append(c);
+            return builder.toString();
         }
 
-        if (building.length() > 0) {
-            arguments.add(building.toString());
+        @Nullable
+        public String getFlagValue(@NotNull Slot slot) {
+            return flagValues[slot.getFlagIndex()];
         }
-
-        return arguments;
     }
 
 }
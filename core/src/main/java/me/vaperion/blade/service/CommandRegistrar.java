@@ -1,8 +1,16 @@
 package me.vaperion.blade.service;
 
+import lombok.Getter;
 import lombok.RequiredArgsConstructor;
 import me.vaperion.blade.Blade;
 import me.vaperion.blade.command.Command;
+import me.vaperion.blade.command.CommandDefinition;
+import me.vaperion.blade.command.CommandDispatcher;
+import me.vaperion.blade.command.CommandRegistry;
+import me.vaperion.blade.command.Parameter;
+import me.vaperion.blade.container.Container;
+import me.vaperion.blade.util.AliasTrie;
+import me.vaperion.blade.util.Tuple;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
@@ -10,32 +18,207 @@ import java.lang.reflect.Method;
 import java.lang.reflect.Modifier;
 import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.LinkedList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
 
 @RequiredArgsConstructor
 public class CommandRegistrar {
 
-    private static final List<Command> EMPTY_COMMAND_LIST = new ArrayList<>();
+    private static final ClassValue<Optional<CommandDispatcher>> DISPATCHERS = new ClassValue<Optional<CommandDispatcher>>() {
+        @Override
+        protected Optional<CommandDispatcher> computeValue(Class<?> type) {
+            return Optional.ofNullable(loadDispatcher(type));
+        }
+    };
 
     private final Blade blade;
 
-    public void registerClass(@Nullable Object instance, @NotNull Class<?> clazz) {
+    // The working copy of the registry, only touched by writers holding the lock of this registrar
+    private final List<Command> commands = new ArrayList<>();
+    private final Map<String, List<Command>> aliasToCommands = new HashMap<>();
+    private final AliasTrie<Tuple<Command, String>> aliasTrie = new AliasTrie<>();
+    private final Map<String, Container> containers = new HashMap<>();
+    private final Set<String> changedBaseCommands = new HashSet<>();
+
+    @Getter
+    private volatile CommandRegistry registry = CommandRegistry.EMPTY;
+
+    private final Map<Tuple<String, List<Class<?>>>, List<Command>> commandsBySignature = new HashMap<>();
+    private final Map<Owner, List<Command>> commandsByOwner = new HashMap<>();
+    private final Map<Command, Owner> owners = new IdentityHashMap<>();
+
+    private int batchDepth;
+    // The registrations of the batch running on each thread, applied once its callback returns
+    private final ThreadLocal<List<Registration>> collecting = new ThreadLocal<>();
+    private final List<Container> pendingContainers = new ArrayList<>();
+    private final Set<Container> pendingRefreshes = Collections.newSetFromMap(new IdentityHashMap<>());
+    private final Map<String, Container> pendingReleases = new LinkedHashMap<>();
+    private final Set<Command> pendingRemovals = Collections.newSetFromMap(new IdentityHashMap<>());
+
+    /**
+     * Runs the given registrations as one batch: the containers they create are committed to the platform together,
+     * containers left without commands are released together and existing containers are refreshed once,
+     * when the outermost batch completes.
+     * <p>
+     * The registrations are collected while the callback runs, and only applied (under the lock of this registrar)
+     * once it returns, so the callback may wait for other threads that register commands themselves.
+     * Changes made in a batch are published as a new {@link CommandRegistry} snapshot at the end of the batch,
+     * before the platform is notified.
+     */
+    public void batch(@NotNull Runnable registrations) {
+        if (collecting.get() != null) {
+            registrations.run();
+            return;
+        }
+
+        List<Registration> collected = new ArrayList<>();
+        collecting.set(collected);
         try {
+            registrations.run();
+        } finally {
+            collecting.remove();
+            apply(collected);
+        }
+    }
+
+    private synchronized void apply(@NotNull List<Registration> collected) {
+        batchDepth++;
+        try {
+            for (Registration registration : collected) {
+                try {
+                    registration.apply();
+                } catch (Exception ex) {
+                    System.err.println("An exception was thrown while applying a batched registration");
+                    ex.printStackTrace();
+                }
+            }
+        } finally {
+            endBatch();
+        }
+    }
+
+    /**
+     * @return whether the registration was deferred to the batch running on the current thread
+     */
+    private boolean defer(@NotNull Registration registration) {
+        List<Registration> collected = collecting.get();
+        if (collected == null) return false;
+
+        collected.add(registration);
+        return true;
+    }
+
+    private void endBatch() {
+        if (--batchDepth > 0) return;
+
+        publish();
+
+        List<Container> released = new ArrayList<>(pendingReleases.values());
+        List<Container> created = new ArrayList<>(pendingContainers);
+        pendingRefreshes.removeAll(created);
+        List<Container> changed = new ArrayList<>(pendingRefreshes);
+        pendingReleases.clear();
+        pendingContainers.clear();
+        pendingRefreshes.clear();
+
+        // Released first, so a container replacing one under the same alias is registered after the old one is gone
+        if (!released.isEmpty()) {
+            try {
+                blade.getPlatform().getContainerCreator().release(blade, released);
+            } catch (Exception ex) {
+                System.err.println("An exception was thrown while releasing " + released.size() + " command container(s)");
+                ex.printStackTrace();
+            }
+        }
+
+        if (!created.isEmpty()) {
+            try {
+                blade.getPlatform().getContainerCreator().commit(blade, created);
+            } catch (Exception ex) {
+                System.err.println("An exception was thrown while committing " + created.size() + " command container(s)");
+                ex.printStackTrace();
+            }
+        }
+
+        changed.forEach(Container::refresh);
+    }
+
+    /**
+     * Publishes the working copy as a new snapshot, only copying the parts of the previous one that changed.
+     */
+    private void publish() {
+        if (changedBaseCommands.isEmpty()) return;
+
+        if (!pendingRemovals.isEmpty()) {
+            commands.removeIf(pendingRemovals::contains);
+            pendingRemovals.clear();
+        }
+
+        CommandRegistry previous = registry;
+        Map<String, List<Command>> publishedAliases = new HashMap<>(previous.getAliasToCommands());
+        for (String baseCommand : changedBaseCommands) {
+            List<Command> baseCommands = aliasToCommands.get(baseCommand);
+            if (baseCommands == null) publishedAliases.remove(baseCommand);
+            else publishedAliases.put(baseCommand, Collections.unmodifiableList(new ArrayList<>(baseCommands)));
+        }
+
+        registry = new CommandRegistry(
+              Collections.unmodifiableList(new ArrayList<>(commands)),
+              Collections.unmodifiableMap(publishedAliases),
+              aliasTrie.snapshot(previous.getAliasTrie(), changedBaseCommands),
+              Collections.unmodifiableMap(new HashMap<>(containers)));
+        changedBaseCommands.clear();
+    }
+
+    public synchronized void registerClass(@Nullable Object instance, @NotNull Class<?> clazz) {
+        if (defer(() -> registerClass(instance, clazz))) return;
+
+        batchDepth++;
+        try {
+            CommandDispatcher dispatcher = DISPATCHERS.get(clazz).orElse(null);
+            if (dispatcher != null) {
+                for (CommandDefinition definition : dispatcher.getCommands()) {
+                    if ((instance == null) != definition.isStatic()) continue;
+
+                    register(instance, clazz, definition);
+                }
+                return;
+            }
+
             for (Method method : clazz.getMethods()) {
                 if (!method.isAnnotationPresent(me.vaperion.blade.annotation.command.Command.class)) continue;
                 if ((instance == null) != Modifier.isStatic(method.getModifiers())) continue;
 
-                registerMethod(instance, method);
+                register(instance, clazz, CommandDefinition.of(method));
             }
         } catch (Exception ex) {
             System.err.println("An exception was thrown while registering commands in class " + clazz.getCanonicalName() + " (instance: " + instance + ")");
             ex.printStackTrace();
+        } finally {
+            endBatch();
         }
     }
 
-    public void unregisterClass(@Nullable Object instance, @NotNull Class<?> clazz) {
+    public synchronized void unregisterClass(@Nullable Object instance, @NotNull Class<?> clazz) {
+        if (defer(() -> unregisterClass(instance, clazz))) return;
+
+        batchDepth++;
         try {
+            List<Command> commands = commandsByOwner.get(new Owner(instance, clazz));
+            if (commands != null) {
+                new ArrayList<>(commands).forEach(this::unregister);
+                return;
+            }
+
+            // Commands registered one by one through registerMethod
             for (Method method : clazz.getMethods()) {
                 if (!method.isAnnotationPresent(me.vaperion.blade.annotation.command.Command.class)) continue;
                 if ((instance == null) != Modifier.isStatic(method.getModifiers())) continue;
@@ -43,54 +226,226 @@ public class CommandRegistrar {
                 unregisterMethod(instance, method);
             }
         } catch (Exception ex) {
-            System.err.println("An exception was thrown while registering commands in class " + clazz.getCanonicalName() + " (instance: " + instance + ")");
+            System.err.println("An exception was thrown while unregistering commands in class " + clazz.getCanonicalName() + " (instance: " + instance + ")");
             ex.printStackTrace();
+        } finally {
+            endBatch();
         }
     }
 
-    public void registerMethod(@Nullable Object instance, @NotNull Method method) throws Exception {
-        Command cmd = new Command(blade, instance, method);
-        blade.getCommands().add(cmd);
+    /**
+     * Replaces the commands registered from the old class (and instance) with the commands of the new one
+     * in a single batch, so the platform only sees the base commands that were actually added or removed.
+     * The containers of base commands both classes register are kept and rebound to the new commands.
+     */
+    public synchronized void reloadClass(@Nullable Object oldInstance, @NotNull Class<?> oldClass, @Nullable Object newInstance, @NotNull Class<?> newClass) {
+        if (defer(() -> reloadClass(oldInstance, oldClass, newInstance, newClass))) return;
 
-        for (String alias : cmd.getAliases()) {
-            String realAlias = alias.split(" ")[0];
+        batch(() -> {
+            unregisterClass(oldInstance, oldClass);
 
-            blade.getAliasToCommands().computeIfAbsent(realAlias, $ -> new LinkedList<>()).add(cmd);
+            if (oldClass.getClassLoader() != newClass.getClassLoader()) {
+                // Drop cached providers and completers that would keep the old class loader reachable
+                blade.getResolver().invalidateProviders();
+                if (oldClass.getClassLoader() != null) Parameter.invalidateCompleters(oldClass.getClassLoader());
+            }
 
-            if (blade.getContainers().containsKey(realAlias)) continue;
-            blade.getContainers().put(realAlias, blade.getPlatform().getContainerCreator().create(blade, cmd, realAlias));
+            registerClass(newInstance, newClass);
+        });
+    }
+
+    public synchronized void registerMethod(@Nullable Object instance, @NotNull Method method) throws Exception {
+        registerDefinition(instance, CommandDefinition.of(method));
+    }
+
+    public synchronized void registerDefinition(@Nullable Object instance, @NotNull CommandDefinition definition) throws Exception {
+        if (defer(() -> registerDefinition(instance, definition))) return;
+
+        register(instance, definition.getType(), definition);
+    }
+
+    private void register(@Nullable Object instance, @NotNull Class<?> owner, @NotNull CommandDefinition definition) throws Exception {
+        Command cmd = new Command(blade, instance, definition);
+        commands.add(cmd);
+        blade.getMetrics().add(cmd);
+        blade.getRateLimits().register(cmd);
+
+        commandsBySignature.computeIfAbsent(signature(definition), $ -> new ArrayList<>(1)).add(cmd);
+        Owner ownerKey = new Owner(instance, owner);
+        commandsByOwner.computeIfAbsent(ownerKey, $ -> new ArrayList<>()).add(cmd);
+        owners.put(cmd, ownerKey);
+
+        batchDepth++;
+        try {
+            for (String alias : cmd.getAliases()) {
+                aliasTrie.insert(alias, new Tuple<>(cmd, alias));
+                changedBaseCommands.add(alias.split(" ")[0].toLowerCase(Locale.ROOT));
+            }
+
+            for (String baseCommand : cmd.getBaseCommands()) {
+                aliasToCommands.computeIfAbsent(baseCommand, $ -> new ArrayList<>()).add(cmd);
+                changedBaseCommands.add(baseCommand);
+
+                Container container = containers.get(baseCommand);
+                if (container == null && (container = pendingReleases.remove(baseCommand)) != null) {
+                    // Released earlier in this batch, so it's kept on the platform for the new command
+                    container.rebind(cmd);
+                    containers.put(baseCommand, container);
+                }
+
+                if (container != null) {
+                    pendingRefreshes.add(container);
+                    continue;
+                }
+
+                container = blade.getPlatform().getContainerCreator().create(blade, cmd, originalCase(cmd, baseCommand));
+                containers.put(baseCommand, container);
+                pendingContainers.add(container);
+            }
+        } finally {
+            endBatch();
+        }
+    }
+
+    public synchronized void unregisterMethod(@Nullable Object instance, @NotNull Method method) {
+        if (defer(() -> unregisterMethod(instance, method))) return;
+
+        List<Command> commands = commandsBySignature.get(new Tuple<>(method.getName(), Arrays.asList(method.getParameterTypes())));
+        if (commands == null) return;
+
+        commands.stream()
+              .filter(c -> c.getInstance() == instance && c.getDefinition().getType() == method.getDeclaringClass())
+              .findFirst().ifPresent(this::unregister);
+    }
+
+    private void unregister(@NotNull Command cmd) {
+        Owner owner = owners.remove(cmd);
+        if (owner == null) return;
+
+        removeFromIndex(commandsByOwner, cmd, owner);
+        removeFromIndex(commandsBySignature, cmd, signature(cmd.getDefinition()));
+
+        pendingRemovals.add(cmd);
+        blade.getMetrics().remove(cmd);
+        blade.getRateLimits().unregister(cmd);
+        blade.getSuggestionCache().invalidate(cmd);
+
+        batchDepth++;
+        try {
+            for (String alias : cmd.getAliases()) {
+                aliasTrie.remove(alias, entry -> entry.getLeft() == cmd);
+                changedBaseCommands.add(alias.split(" ")[0].toLowerCase(Locale.ROOT));
+            }
+
+            for (String baseCommand : cmd.getBaseCommands()) {
+                changedBaseCommands.add(baseCommand);
+
+                Container container = containers.get(baseCommand);
+                if (!removeFromIndex(aliasToCommands, cmd, baseCommand)) {
+                    if (container != null) pendingRefreshes.add(container);
+                    continue;
+                }
+
+                // The last command under this base command is gone, so is its container
+                if (container == null) continue;
+                containers.remove(baseCommand);
+                pendingRefreshes.remove(container);
+                if (!pendingContainers.remove(container)) pendingReleases.put(baseCommand, container);
+            }
+        } finally {
+            endBatch();
+        }
+    }
+
+    public synchronized void unregisterAlias(@NotNull String alias) {
+        if (defer(() -> unregisterAlias(alias))) return;
+
+        String lowerAlias = alias.toLowerCase(Locale.ROOT);
+        List<Command> commands = aliasToCommands.get(lowerAlias.split(" ")[0]);
+        if (commands == null) return;
+
+        List<Command> matching = new ArrayList<>();
+        for (Command command : commands) {
+            if (Arrays.stream(command.getAliases()).anyMatch(a -> a.equalsIgnoreCase(lowerAlias))) matching.add(command);
         }
+
+        batch(() -> matching.forEach(this::unregister));
     }
 
-    public void unregisterMethod(@Nullable Object instance, @NotNull Method method) {
-        me.vaperion.blade.annotation.command.Command command = method.getAnnotation(me.vaperion.blade.annotation.command.Command.class);
+    /**
+     * @return whether the command was the last one under the key, which is then removed
+     */
+    private static <K> boolean removeFromIndex(@NotNull Map<K, List<Command>> index, @NotNull Command cmd, @NotNull K key) {
+        List<Command> commands = index.get(key);
+        if (commands == null || !commands.removeIf(c -> c == cmd) || !commands.isEmpty()) return false;
 
-        String[] aliases = command.value();
-        aliases = Arrays.stream(aliases).map(String::toLowerCase).toArray(String[]::new);
+        index.remove(key);
+        return true;
+    }
 
-        Command cmd = blade.getCommands().stream().filter(c -> c.getInstance() == instance && c.getMethod() == method).findFirst().orElse(null);
-        if (cmd == null) return;
-        blade.getCommands().remove(cmd);
+    @NotNull
+    private static Tuple<String, List<Class<?>>> signature(@NotNull CommandDefinition definition) {
+        return new Tuple<>(definition.getMethodName(), Arrays.asList(definition.getParameterTypes()));
+    }
 
-        for (String alias : aliases) {
+    /**
+     * The base command as it was written in the aliases of the command, used as the name of its container.
+     */
+    @NotNull
+    private static String originalCase(@NotNull Command cmd, @NotNull String baseCommand) {
+        for (String alias : cmd.getAliases()) {
             String realAlias = alias.split(" ")[0];
+            if (realAlias.equalsIgnoreCase(baseCommand)) return realAlias;
+        }
+        return baseCommand;
+    }
 
-            List<Command> commandList = blade.getAliasToCommands().getOrDefault(realAlias, EMPTY_COMMAND_LIST);
-            commandList.remove(cmd);
-            if (commandList.isEmpty()) blade.getAliasToCommands().remove(realAlias);
+    @Nullable
+    private static CommandDispatcher loadDispatcher(@NotNull Class<?> type) {
+        String name = type.getName();
+        int packageEnd = name.lastIndexOf('.');
+        String dispatcherName = name.substring(0, packageEnd + 1) + name.substring(packageEnd + 1).replace('$', '_') + CommandDispatcher.SUFFIX;
+
+        try {
+            Class<?> dispatcherClass = Class.forName(dispatcherName, true, type.getClassLoader());
+            if (!CommandDispatcher.class.isAssignableFrom(dispatcherClass)) return null;
+
+            CommandDispatcher dispatcher = (CommandDispatcher) dispatcherClass.getDeclaredConstructor().newInstance();
+            return dispatcher.getType() == type ? dispatcher : null;
+        } catch (ClassNotFoundException ex) {
+            return null;
+        } catch (Throwable t) {
+            System.err.println("Failed to load the generated command dispatcher for class " + type.getName() + ", falling back to reflection.");
+            t.printStackTrace();
+            return null;
         }
     }
 
-    public void unregisterAlias(@NotNull String alias) {
-        List<Runnable> calls = new ArrayList<>();
+    @FunctionalInterface
+    private interface Registration {
+        void apply() throws Exception;
+    }
+
+    /**
+     * The instance (by identity) and class a command was registered from.
+     */
+    @RequiredArgsConstructor
+    private static final class Owner {
+        private final Object instance;
+        private final Class<?> type;
 
-        for (Command command : blade.getCommands()) {
-            String[] aliases = command.getAliases();
-            if (Arrays.stream(aliases).noneMatch(a -> a.equalsIgnoreCase(alias))) continue;
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Owner)) return false;
 
-            calls.add(() -> unregisterMethod(command.getInstance(), command.getMethod()));
+            Owner owner = (Owner) o;
+            return instance == owner.instance && type == owner.type;
         }
 
-        calls.forEach(Runnable::run);
+        @Override
+        public int hashCode() {
+            return 31 * System.identityHashCode(instance) + type.hashCode();
+        }
     }
-}
\ No newline at end of file
+}
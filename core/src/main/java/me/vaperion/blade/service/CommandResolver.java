@@ -7,82 +7,166 @@ import me.vaperion.blade.annotation.command.*;
 import me.vaperion.blade.argument.ArgumentProvider;
 import me.vaperion.blade.argument.Provider;
 import me.vaperion.blade.command.Command;
+import me.vaperion.blade.context.Context;
+import me.vaperion.blade.util.CommandLine;
 import me.vaperion.blade.util.Tuple;
+import me.vaperion.blade.trace.Phase;
+import me.vaperion.blade.trace.Span;
+import me.vaperion.blade.trace.Tracing;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
 import java.lang.annotation.Annotation;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 @RequiredArgsConstructor
 public class CommandResolver {
 
-    private static final List<Class<? extends Annotation>> INTERNAL_ANNOTATIONS = Arrays.asList(
-          Completer.class, Data.class, Flag.class, Name.class, Optional.class, Range.class, Sender.class, Text.class,
+    private static final ArgumentProvider<?> MISSING_PROVIDER = (context, argument) -> null;
+    private static final Set<Class<? extends Annotation>> INTERNAL_ANNOTATIONS = new HashSet<>(Arrays.asList(
+          CacheSuggestions.class, Completer.class, Data.class, Flag.class, Name.class, Optional.class, Range.class, Sender.class, Text.class,
 
           Async.class, me.vaperion.blade.annotation.command.Command.class, Description.class, ExtraUsage.class, Hidden.class,
           ParseQuotes.class, Permission.class, Usage.class, UsageAlias.class
-    );
+    ));
 
     private final Blade blade;
 
+    private final Map<Class<?>, List<Provider<?>>> providersByType = new HashMap<>();
+    private final Map<Tuple<Class<?>, Set<Class<? extends Annotation>>>, ArgumentProvider<?>> resolvedProviders = new ConcurrentHashMap<>();
+
     @Nullable
     public Tuple<Command, String> resolveCommand(@NotNull String[] input) {
-        if (input.length == 0) return null;
-        String[] commandParts = Arrays.copyOf(input, input.length);
-        if (commandParts[0].contains(":")) commandParts[0] = commandParts[0].split(":", 2)[1];
+        return resolveCommand(CommandLine.of(input), null);
+    }
 
-        String baseCommand = commandParts[0].toLowerCase();
-        List<Command> tree = blade.getAliasToCommands().getOrDefault(baseCommand, new ArrayList<>());
+    @Nullable
+    public Tuple<Command, String> resolveCommand(@NotNull CommandLine input) {
+        return resolveCommand(input, null);
+    }
 
-        do {
-            String checking = String.join(" ", commandParts);
+    /**
+     * @param context the context of the dispatch the command is resolved for, which its Flight Recorder event is correlated with
+     */
+    @Nullable
+    public Tuple<Command, String> resolveCommand(@NotNull CommandLine input, @Nullable Context context) {
+        if (input.isEmpty()) return null;
 
-            for (Command subCommand : tree) {
-                for (String commandAlias : subCommand.getAliases()) {
-                    if (commandAlias.equalsIgnoreCase(checking)) return new Tuple<>(subCommand, commandAlias);
-                }
-            }
+        String baseCommand = input.get(0);
+        int namespaceIndex = baseCommand.indexOf(':');
+        if (namespaceIndex != -1) baseCommand = baseCommand.substring(namespaceIndex + 1);
 
-            commandParts = Arrays.copyOfRange(commandParts, 0, commandParts.length - 1);
-        } while (commandParts.length > 0);
+        Span span = Tracing.begin(Phase.RESOLVE);
+        Tuple<Command, String> resolved = blade.getAliasTrie().resolve(baseCommand, input, 1);
+        span.finish(context, resolved == null ? baseCommand : resolved.getRight(), false, resolved == null ? "unknown" : "resolved", null);
+        return resolved;
+    }
 
-        return null;
+    /**
+     * @return the number of words in the given alias
+     */
+    public static int countWords(@NotNull String alias) {
+        int words = 1;
+        for (int i = 0; i < alias.length(); i++) {
+            if (alias.charAt(i) == ' ') words++;
+        }
+        return words;
     }
 
+    /**
+     * Resolves the provider for the given type and parameter annotations, looking at the type itself,
+     * then its superclasses and finally all of its interfaces (breadth first).
+     * <p>
+     * Results (including misses) are memoized per type and set of non-internal annotations.
+     */
     @SuppressWarnings("unchecked")
     @Nullable
     public <T> ArgumentProvider<T> recursiveResolveProvider(Class<T> clazz, List<Annotation> annotations) {
+        List<Class<? extends Annotation>> inputAnnotations = new ArrayList<>(annotations.size());
+        for (Annotation annotation : annotations) {
+            Class<? extends Annotation> type = annotation.annotationType();
+            if (!INTERNAL_ANNOTATIONS.contains(type)) inputAnnotations.add(type);
+        }
+
+        Tuple<Class<?>, Set<Class<? extends Annotation>>> key = new Tuple<>(clazz, new HashSet<>(inputAnnotations));
+        ArgumentProvider<?> provider = resolvedProviders.computeIfAbsent(key, $ -> {
+            ArgumentProvider<?> resolved = resolveInHierarchy(clazz, inputAnnotations);
+            return resolved == null ? MISSING_PROVIDER : resolved;
+        });
+
+        return provider == MISSING_PROVIDER ? null : (ArgumentProvider<T>) provider;
+    }
+
+    /**
+     * Clears the provider index, this must be called after modifying {@link Blade#getProviders()} directly.
+     */
+    public void invalidateProviders() {
+        synchronized (providersByType) {
+            providersByType.clear();
+            resolvedProviders.clear();
+        }
+    }
+
+    @Nullable
+    private ArgumentProvider<?> resolveInHierarchy(Class<?> clazz, List<Class<? extends Annotation>> annotations) {
         Class<?> parent = clazz;
         do {
-            ArgumentProvider<T> provider = (ArgumentProvider<T>) resolveProvider(parent, annotations);
+            ArgumentProvider<?> provider = resolveProvider(parent, annotations);
             if (provider != null) return provider;
 
             parent = parent.getSuperclass();
         } while (parent != Object.class && parent != null);
 
+        Deque<Class<?>> interfaces = new ArrayDeque<>();
+        for (parent = clazz; parent != null; parent = parent.getSuperclass()) {
+            Collections.addAll(interfaces, parent.getInterfaces());
+        }
+
+        Set<Class<?>> visited = new HashSet<>();
+        while (!interfaces.isEmpty()) {
+            Class<?> type = interfaces.poll();
+            if (!visited.add(type)) continue;
+
+            ArgumentProvider<?> provider = resolveProvider(type, annotations);
+            if (provider != null) return provider;
+
+            Collections.addAll(interfaces, type.getInterfaces());
+        }
+
         return null;
     }
 
-    @SuppressWarnings("unchecked")
     @Nullable
-    private <T> ArgumentProvider<T> resolveProvider(Class<T> clazz, List<Annotation> annotations) {
-        List<Class<? extends Annotation>> inputAnnotations = annotations.stream()
-              .map(Annotation::annotationType)
-              .map(c -> (Class<? extends Annotation>) c)
-              .collect(Collectors.toList());
-        inputAnnotations.removeIf(INTERNAL_ANNOTATIONS::contains);
-
-        return blade.getProviders().stream()
-              .filter(container -> container.getType() == clazz)
-              .filter(container -> container.doAnnotationsMatch(inputAnnotations))
-              .limit(1)
-              .map(Provider::getProvider)
-              .map(provider -> (ArgumentProvider<T>) provider)
-              .findFirst().orElse(null);
+    private ArgumentProvider<?> resolveProvider(Class<?> clazz, List<Class<? extends Annotation>> annotations) {
+        for (Provider<?> provider : providersOf(clazz)) {
+            if (provider.doAnnotationsMatch(annotations)) return provider.getProvider();
+        }
+
+        return null;
+    }
+
+    @NotNull
+    private List<Provider<?>> providersOf(Class<?> clazz) {
+        synchronized (providersByType) {
+            if (providersByType.isEmpty()) {
+                // Built from the final provider list, so releases and registration order are already applied
+                for (Provider<?> provider : blade.getProviders()) {
+                    providersByType.computeIfAbsent(provider.getType(), $ -> new ArrayList<>(1)).add(provider);
+                }
+            }
+
+            return providersByType.getOrDefault(clazz, Collections.emptyList());
+        }
     }
 
-}
\ No newline at end of file
+}
@@ -0,0 +1,105 @@
+package me.vaperion.blade.service;
+
+import lombok.RequiredArgsConstructor;
+import me.vaperion.blade.Blade;
+import me.vaperion.blade.command.Command;
+import me.vaperion.blade.command.CommandRegistry;
+import me.vaperion.blade.context.Context;
+import me.vaperion.blade.platform.HelpGenerator;
+import me.vaperion.blade.trace.Phase;
+import me.vaperion.blade.trace.Span;
+import me.vaperion.blade.trace.Tracing;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Generates the help shown when no command could be resolved, from the commands of the published
+ * {@link CommandRegistry} with the same (lowercase) base alias.
+ * <p>
+ * If the help generator is {@link HelpGenerator#isCacheable() cacheable}, rendered pages are cached by the alias,
+ * the {@link HelpGenerator#getPage(Context) page} and the set of commands visible to the sender, until a new registry is published.
+ */
+@RequiredArgsConstructor
+public class HelpIndex {
+
+    private static final int MAXIMUM_PAGES = 256;
+
+    private final Blade blade;
+
+    private CommandRegistry cachedRegistry;
+    private final Map<String, List<String>> pages = new LinkedHashMap<String, List<String>>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, List<String>> eldest) {
+            return size() > MAXIMUM_PAGES;
+        }
+    };
+
+    /**
+     * @return the commands with the given base alias (ignoring case), in the order they were registered
+     */
+    @NotNull
+    public List<Command> getCommands(@NotNull String baseAlias) {
+        return getCommands(blade.getRegistry(), baseAlias);
+    }
+
+    @NotNull
+    public List<String> generateHelp(@NotNull Context context, @NotNull String alias) {
+        Span span = Tracing.begin(Phase.MESSAGE);
+        List<String> lines = render(context, alias);
+        span.finish(context, alias, false, "success", "help");
+        return lines;
+    }
+
+    private List<String> render(Context context, String alias) {
+        HelpGenerator generator = blade.getConfiguration().getHelpGenerator();
+        CommandRegistry registry = blade.getRegistry();
+        List<Command> available = getCommands(registry, alias);
+        if (!generator.isCacheable()) return generator.generate(context, available);
+
+        String key = alias + '\0' + generator.getPage(context) + '\0' + visibleCommands(context, available);
+
+        synchronized (pages) {
+            if (cachedRegistry != registry) {
+                // Pages rendered from an older registry may list commands that were changed since
+                pages.clear();
+                cachedRegistry = registry;
+            }
+
+            List<String> cached = pages.get(key);
+            if (cached != null) return cached;
+        }
+
+        List<String> lines = Collections.unmodifiableList(new ArrayList<>(generator.generate(context, available)));
+        synchronized (pages) {
+            if (cachedRegistry == registry) pages.put(key, lines);
+        }
+        return lines;
+    }
+
+    public void invalidatePages() {
+        synchronized (pages) {
+            pages.clear();
+        }
+    }
+
+    private List<Command> getCommands(CommandRegistry registry, String baseAlias) {
+        return registry.getAliasToCommands().getOrDefault(baseAlias.toLowerCase(Locale.ROOT), Collections.emptyList());
+    }
+
+    private String visibleCommands(Context context, List<Command> available) {
+        BitSet visible = new BitSet(available.size());
+        for (int i = 0; i < available.size(); i++) {
+            Command command = available.get(i);
+            if (!command.isHidden() && blade.getPermissionTester().testPermission(context, command)) visible.set(i);
+        }
+        return visible.toString();
+    }
+
+}
@@ -0,0 +1,147 @@
+package me.vaperion.blade.service;
+
+import me.vaperion.blade.util.PermissionPredicate;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.BitSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Caches the permission decisions of senders, keyed by a compact id of the permission
+ * (or of the {@link PermissionPredicate#isCacheable() cacheable} predicate).
+ * <p>
+ * Decisions are kept per {@link me.vaperion.blade.context.WrappedSender#getKey() sender key}, and only for
+ * {@link me.vaperion.blade.context.WrappedSender#isUniquelyKeyed() uniquely keyed} senders.
+ * <p>
+ * The decisions of a sender expire together, and only a bounded amount of senders is kept, evicting the least recently used one.
+ * Platforms invalidate the decisions of a sender when its permissions may have changed, such as when it leaves or changes worlds.
+ * Caching is disabled until an expiry is set.
+ */
+public class PermissionCache {
+
+    private final Map<String, Integer> ids = new ConcurrentHashMap<>();
+    private final AtomicInteger nextId = new AtomicInteger();
+
+    private final Map<Object, Decisions> senders = new LinkedHashMap<Object, Decisions>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Object, Decisions> eldest) {
+            return size() > maximumSenders;
+        }
+    };
+
+    private final AtomicLong hits = new AtomicLong(), misses = new AtomicLong();
+
+    private volatile long expiry;
+    private volatile int maximumSenders = 1000;
+
+    /**
+     * Sets how long the decisions of a sender are kept, a non-positive duration disables the cache.
+     */
+    public void setExpiry(long duration, @NotNull TimeUnit unit) {
+        this.expiry = unit.toNanos(duration);
+        if (expiry <= 0) invalidateAll();
+    }
+
+    public void setMaximumSenders(int maximumSenders) {
+        this.maximumSenders = maximumSenders;
+    }
+
+    public boolean isEnabled() {
+        return expiry > 0;
+    }
+
+    public boolean test(@NotNull Object sender, @NotNull String permission, @NotNull BooleanSupplier tester) {
+        long expiry = this.expiry;
+        if (expiry <= 0) return tester.getAsBoolean();
+
+        int id = ids.computeIfAbsent(permission, $ -> nextId.getAndIncrement());
+        long now = System.nanoTime();
+
+        Decisions decisions;
+        synchronized (senders) {
+            decisions = senders.get(sender);
+            if (decisions == null || now - decisions.expiresAt >= 0) {
+                decisions = new Decisions(now + expiry);
+                senders.put(sender, decisions);
+            }
+        }
+
+        Boolean cached = decisions.get(id);
+        if (cached != null) {
+            hits.incrementAndGet();
+            return cached;
+        }
+
+        misses.incrementAndGet();
+        boolean allowed = tester.getAsBoolean();
+        decisions.put(id, allowed);
+        return allowed;
+    }
+
+    public void invalidate(@NotNull Object sender) {
+        synchronized (senders) {
+            senders.remove(sender);
+        }
+    }
+
+    public void invalidateAll() {
+        synchronized (senders) {
+            senders.clear();
+        }
+    }
+
+    /**
+     * @return the amount of senders with cached decisions
+     */
+    public int size() {
+        synchronized (senders) {
+            return senders.size();
+        }
+    }
+
+    public long getHits() {
+        return hits.get();
+    }
+
+    public long getMisses() {
+        return misses.get();
+    }
+
+    /**
+     * @return the ratio of permission checks answered from the cache, or 0 if there were none
+     */
+    public double getHitRate() {
+        long hits = this.hits.get(), total = hits + misses.get();
+        return total == 0 ? 0 : (double) hits / total;
+    }
+
+    public void resetStats() {
+        hits.set(0);
+        misses.set(0);
+    }
+
+    private static final class Decisions {
+        private final BitSet known = new BitSet(), allowed = new BitSet();
+        private final long expiresAt;
+
+        private Decisions(long expiresAt) {
+            this.expiresAt = expiresAt;
+        }
+
+        private synchronized Boolean get(int id) {
+            return known.get(id) ? allowed.get(id) : null;
+        }
+
+        private synchronized void put(int id, boolean value) {
+            known.set(id);
+            allowed.set(id, value);
+        }
+    }
+
+}
@@ -5,9 +5,13 @@ import me.vaperion.blade.Blade;
 import me.vaperion.blade.command.Command;
 import me.vaperion.blade.context.Context;
 import me.vaperion.blade.util.PermissionPredicate;
+import me.vaperion.blade.trace.Phase;
+import me.vaperion.blade.trace.Span;
+import me.vaperion.blade.trace.Tracing;
 import org.jetbrains.annotations.NotNull;
 
 import java.util.Locale;
+import java.util.function.BooleanSupplier;
 
 @RequiredArgsConstructor
 public class PermissionTester {
@@ -15,6 +19,25 @@ public class PermissionTester {
     private final Blade blade;
 
     public boolean testPermission(@NotNull Context context, @NotNull Command command) {
+        Span span = Tracing.begin(Phase.PERMISSION);
+        boolean allowed = test(context, command);
+        span.finish(context, command.getAliases()[0], false, allowed ? "allowed" : "denied", command.getPermission());
+        return allowed;
+    }
+
+    /**
+     * @return whether the permission of the command can be tested from any thread, which is not the case for
+     * predicates that aren't {@link PermissionPredicate#isCacheable() cacheable}, as they may depend on more than the sender
+     */
+    public boolean canTestAsync(@NotNull Command command) {
+        String permission = command.getPermission();
+        if (permission == null || !permission.startsWith("@")) return true;
+
+        PermissionPredicate predicate = blade.getPermissionPredicates().get(permission.substring(1).toLowerCase(Locale.ROOT));
+        return predicate == null || predicate.isCacheable();
+    }
+
+    private boolean test(Context context, Command command) {
         String permission = command.getPermission();
 
         if (permission == null || permission.isEmpty()) { // If the command doesn't have a permission, it's allowed
@@ -29,10 +52,18 @@ public class PermissionTester {
                 return true;
             }
 
-            return predicate.test(context, command);
+            if (!predicate.isCacheable()) return predicate.test(context, command);
+            return cached(context, permission, () -> predicate.test(context, command));
         }
 
-        return context.sender().hasPermission(permission); // Let the sender implementation handle the permission check
+        return cached(context, permission, () -> context.sender().hasPermission(permission)); // Let the sender implementation handle the permission check
+    }
+
+    private boolean cached(Context context, String permission, BooleanSupplier tester) {
+        PermissionCache cache = blade.getConfiguration().getPermissionCache();
+        if (!cache.isEnabled() || !context.sender().isUniquelyKeyed()) return tester.getAsBoolean(); // senders sharing a key would share decisions
+
+        return cache.test(context.sender().getKey(), permission, tester);
     }
 
 }
\ No newline at end of file
@@ -0,0 +1,160 @@
+package me.vaperion.blade.service;
+
+import me.vaperion.blade.annotation.command.Cooldown;
+import me.vaperion.blade.annotation.command.RateLimit;
+import me.vaperion.blade.command.Command;
+import me.vaperion.blade.command.CommandDefinition;
+import me.vaperion.blade.command.RateLimiter;
+import me.vaperion.blade.context.Context;
+import me.vaperion.blade.exception.BladeExitMessage;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Enforces the {@link Cooldown} and {@link RateLimit} annotations of commands, before their arguments are parsed.
+ * Buckets are kept per {@link me.vaperion.blade.context.WrappedSender#getKey() sender key}.
+ * <p>
+ * Expired buckets are swept at most once a minute, during a check. The active ones can be saved to a file
+ * when the plugin is disabled, and loaded again after the commands were registered, so they survive restarts.
+ */
+public class RateLimitService {
+
+    private static final long SWEEP_INTERVAL = TimeUnit.MINUTES.toMillis(1L);
+
+    private final Set<Command> commands = ConcurrentHashMap.newKeySet();
+    private final AtomicLong nextSweep = new AtomicLong();
+
+    public void register(@NotNull Command command) {
+        if (!command.getRateLimiters().isEmpty()) commands.add(command);
+    }
+
+    public void unregister(@NotNull Command command) {
+        commands.remove(command);
+    }
+
+    public void check(@NotNull Context context, @NotNull Command command) throws BladeExitMessage {
+        List<RateLimiter> limiters = command.getRateLimiters();
+        if (limiters.isEmpty()) return;
+
+        long now = System.currentTimeMillis();
+        sweepIfDue(now);
+
+        String sender = context.sender().getKey().toString(); // the unique id of players, so renaming doesn't reset their buckets
+        int taken = 0; // a bit per limiter a token was taken from, a command has at most a cooldown and a rate limit
+
+        for (int i = 0; i < limiters.size(); i++) {
+            RateLimiter limiter = limiters.get(i);
+            String bypassPermission = limiter.getBypassPermission();
+            if (!bypassPermission.isEmpty() && context.sender().hasPermission(bypassPermission)) continue;
+
+            long remaining = limiter.tryAcquire(sender, now);
+            if (remaining <= 0) {
+                taken |= 1 << i;
+                continue;
+            }
+
+            // The command doesn't run, so the tokens taken from the previous limiters are returned
+            for (int j = 0; j < i; j++) {
+                if ((taken & 1 << j) != 0) limiters.get(j).release(sender);
+            }
+            throw new BladeExitMessage(limiter.formatMessage(remaining));
+        }
+    }
+
+    /**
+     * Resets the cooldowns and rate limits of every sender.
+     */
+    public void reset() {
+        for (Command command : commands) {
+            command.getRateLimiters().forEach(RateLimiter::clear);
+        }
+    }
+
+    /**
+     * Writes the buckets that aren't full yet to the file, one per line.
+     */
+    public void save(@NotNull Path file) throws IOException {
+        long now = System.currentTimeMillis();
+
+        try (BufferedWriter writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            for (Command command : commands) {
+                for (RateLimiter limiter : command.getRateLimiters()) {
+                    for (Map.Entry<String, Long> bucket : limiter.snapshot(now).entrySet()) {
+                        writer.write(idOf(command) + '\t' + limiter.getName() + '\t' + bucket.getKey() + '\t' + bucket.getValue());
+                        writer.newLine();
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Restores the buckets written by {@link #save(Path)}, ignoring the ones of commands that aren't registered.
+     */
+    public void load(@NotNull Path file) throws IOException {
+        if (!Files.exists(file)) return;
+
+        Map<String, Command> byId = new HashMap<>();
+        for (Command command : commands) byId.put(idOf(command), command);
+
+        long now = System.currentTimeMillis();
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                String[] parts = line.split("\t");
+                if (parts.length != 4) continue;
+
+                Command command = byId.get(parts[0]);
+                if (command == null) continue;
+
+                long full;
+                try {
+                    full = Long.parseLong(parts[3]);
+                } catch (NumberFormatException ex) {
+                    continue;
+                }
+                if (full <= now) continue;
+
+                for (RateLimiter limiter : command.getRateLimiters()) {
+                    if (limiter.getName().equals(parts[1])) limiter.restore(parts[2], full);
+                }
+            }
+        }
+    }
+
+    private void sweepIfDue(long now) {
+        long due = nextSweep.get();
+        if (now < due || !nextSweep.compareAndSet(due, now + SWEEP_INTERVAL)) return;
+
+        for (Command command : commands) {
+            for (RateLimiter limiter : command.getRateLimiters()) limiter.sweep(now);
+        }
+    }
+
+    // Includes the parameter types, so overloaded command methods keep their own buckets
+    private static String idOf(Command command) {
+        CommandDefinition definition = command.getDefinition();
+        StringBuilder builder = new StringBuilder(definition.getQualifiedName()).append('(');
+
+        Class<?>[] parameterTypes = definition.getParameterTypes();
+        for (int i = 0; i < parameterTypes.length; i++) {
+            if (i > 0) builder.append(',');
+            builder.append(parameterTypes[i].getName());
+        }
+        return builder.append(')').toString();
+    }
+
+}
@@ -0,0 +1,174 @@
+package me.vaperion.blade.service;
+
+import me.vaperion.blade.annotation.argument.CacheSuggestions;
+import me.vaperion.blade.command.Command;
+import me.vaperion.blade.command.ParsePlan.Slot;
+import me.vaperion.blade.context.Context;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Caches the tab completions of parameters annotated with (or using a provider annotated with) {@link CacheSuggestions}.
+ * <p>
+ * Every parameter has its own bounded, least recently used cache keyed by the input (and the
+ * {@link me.vaperion.blade.context.WrappedSender#getKey() sender key}, if enabled, in which case only
+ * {@link me.vaperion.blade.context.WrappedSender#isUniquelyKeyed() uniquely keyed} senders are cached).
+ * If prefix filtering is enabled and an input is not cached, but a shorter prefix of it is, the suggestions of the longest such prefix
+ * are filtered instead of calling the provider. Prefixes are only looked up at the lengths of the inputs that are cached.
+ */
+public class SuggestionCache {
+
+    private final Map<Slot, Region> regions = new ConcurrentHashMap<>();
+    private final AtomicLong hits = new AtomicLong(), prefixHits = new AtomicLong(), misses = new AtomicLong();
+
+    @NotNull
+    public List<String> suggest(@NotNull Slot slot, @NotNull Context context, @NotNull String input, @NotNull Supplier<List<String>> loader) {
+        CacheSuggestions settings = slot.getCacheSuggestions();
+        if (settings == null) return loader.get();
+        if (settings.perSender() && !context.sender().isUniquelyKeyed()) return loader.get(); // senders sharing a key would share suggestions
+
+        Region region = regions.computeIfAbsent(slot, $ -> new Region(settings.maximumSize()));
+        String keyPrefix = settings.perSender() ? context.sender().getKey().toString() + '\0' : "";
+        long now = System.nanoTime();
+
+        CachedSuggestions cached = region.get(keyPrefix + input, now);
+        if (cached != null) {
+            hits.incrementAndGet();
+            return cached.suggestions;
+        }
+
+        if (settings.filterPrefix()) {
+            CachedSuggestions shorter = region.getLongestPrefix(keyPrefix, input, now);
+            if (shorter != null) {
+                List<String> filtered = new ArrayList<>();
+                for (String suggestion : shorter.suggestions) {
+                    if (suggestion.regionMatches(true, 0, input, 0, input.length())) filtered.add(suggestion);
+                }
+
+                // filtered results expire together with the ones they were computed from
+                List<String> result = Collections.unmodifiableList(filtered);
+                region.put(keyPrefix + input, new CachedSuggestions(result, shorter.expiresAt));
+                prefixHits.incrementAndGet();
+                return result;
+            }
+        }
+
+        misses.incrementAndGet();
+        List<String> loaded = Collections.unmodifiableList(new ArrayList<>(loader.get()));
+        region.put(keyPrefix + input, new CachedSuggestions(loaded, now + settings.unit().toNanos(settings.expireAfter())));
+        return loaded;
+    }
+
+    public void invalidateAll() {
+        regions.clear();
+    }
+
+    public void invalidate(@NotNull Command command) {
+        for (Slot slot : command.getParsePlan().getSlots()) {
+            regions.remove(slot);
+        }
+    }
+
+    /**
+     * @return the amount of suggestions answered directly from the cache
+     */
+    public long getHits() {
+        return hits.get();
+    }
+
+    /**
+     * @return the amount of suggestions answered by filtering the cached suggestions of a shorter input
+     */
+    public long getPrefixHits() {
+        return prefixHits.get();
+    }
+
+    /**
+     * @return the amount of suggestions that had to be computed by the provider
+     */
+    public long getMisses() {
+        return misses.get();
+    }
+
+    public void resetStats() {
+        hits.set(0);
+        prefixHits.set(0);
+        misses.set(0);
+    }
+
+    private static final class Region {
+        private final Map<String, CachedSuggestions> entries;
+        // amount of cached keys by their length, so prefixes are only looked up at lengths that are cached
+        private final TreeMap<Integer, Integer> lengths = new TreeMap<>();
+
+        private Region(int maximumSize) {
+            this.entries = new LinkedHashMap<String, CachedSuggestions>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, CachedSuggestions> eldest) {
+                    if (size() <= maximumSize) return false;
+
+                    removeLength(eldest.getKey());
+                    return true;
+                }
+            };
+        }
+
+        private synchronized CachedSuggestions get(String key, long now) {
+            CachedSuggestions entry = entries.get(key);
+            if (entry == null) return null;
+
+            if (now - entry.expiresAt >= 0) {
+                entries.remove(key);
+                removeLength(key);
+                return null;
+            }
+
+            return entry;
+        }
+
+        /**
+         * @return the unexpired entry of the longest shorter input that {@code input} starts with
+         */
+        private synchronized CachedSuggestions getLongestPrefix(String keyPrefix, String input, long now) {
+            String key = keyPrefix + input;
+
+            Integer length = lengths.lowerKey(key.length());
+            while (length != null && length >= keyPrefix.length()) {
+                CachedSuggestions entry = get(key.substring(0, length), now);
+                if (entry != null) return entry;
+
+                length = lengths.lowerKey(length);
+            }
+
+            return null;
+        }
+
+        private synchronized void put(String key, CachedSuggestions entry) {
+            if (entries.put(key, entry) == null) lengths.merge(key.length(), 1, Integer::sum);
+        }
+
+        private void removeLength(String key) {
+            lengths.computeIfPresent(key.length(), ($, count) -> count == 1 ? null : count - 1);
+        }
+    }
+
+    private static final class CachedSuggestions {
+        private final List<String> suggestions;
+        private final long expiresAt;
+
+        private CachedSuggestions(List<String> suggestions, long expiresAt) {
+            this.suggestions = suggestions;
+            this.expiresAt = expiresAt;
+        }
+    }
+
+}
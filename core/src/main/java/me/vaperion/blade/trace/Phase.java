@@ -0,0 +1,14 @@
+package me.vaperion.blade.trace;
+
+/**
+ * The phases of dispatching a command, each recorded as its own Flight Recorder event type.
+ */
+public enum Phase {
+    RESOLVE,
+    PERMISSION,
+    PARSE,
+    PROVIDER,
+    INVOKE,
+    SUGGEST,
+    MESSAGE
+}
@@ -0,0 +1,22 @@
+package me.vaperion.blade.trace;
+
+import me.vaperion.blade.context.Context;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * A phase of a dispatch which is being recorded, see {@link Tracing#begin(Phase)}.
+ */
+public interface Span {
+
+    Span DISABLED = (context, alias, async, outcome, detail) -> {};
+
+    /**
+     * Ends the phase, and records it if the recording is still interested in it.
+     *
+     * @param context the context of the dispatch, used for the sender type and to correlate the phases of a dispatch
+     * @param detail  phase-specific information, such as the parameter a provider parsed
+     */
+    void finish(@Nullable Context context, @Nullable String alias, boolean async, @NotNull String outcome, @Nullable String detail);
+
+}
@@ -0,0 +1,68 @@
+package me.vaperion.blade.trace;
+
+import me.vaperion.blade.exception.BladeExitMessage;
+import me.vaperion.blade.exception.BladeUsageMessage;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Emits JDK Flight Recorder events for the phases of dispatching commands, if the runtime supports it (JDK 8u262+ or 11+).
+ * <p>
+ * The event classes are only loaded if Flight Recorder is available. While no recording is interested in a phase,
+ * {@link #begin(Phase)} returns {@link Span#DISABLED} without allocating anything.
+ */
+public final class Tracing {
+
+    private static final Tracer TRACER = load();
+    private static final AtomicLong DISPATCH_IDS = new AtomicLong();
+
+    private Tracing() {}
+
+    @NotNull
+    public static Span begin(@NotNull Phase phase) {
+        return TRACER.begin(phase);
+    }
+
+    /**
+     * @return whether the runtime supports Flight Recorder events
+     */
+    public static boolean isSupported() {
+        return TRACER != Tracer.DISABLED;
+    }
+
+    /**
+     * @return the outcome of a phase which threw the given exception, or succeeded if it's null
+     */
+    @NotNull
+    public static String outcomeOf(@Nullable Throwable throwable) {
+        if (throwable == null) return "success";
+        if (throwable instanceof BladeUsageMessage) return "usage";
+        if (throwable instanceof BladeExitMessage) return "exit";
+        return "error";
+    }
+
+    public static long nextDispatchId() {
+        return DISPATCH_IDS.incrementAndGet();
+    }
+
+    private static Tracer load() {
+        try {
+            Class<?> recorder = Class.forName("jdk.jfr.FlightRecorder");
+            if (!(boolean) recorder.getMethod("isAvailable").invoke(null)) return Tracer.DISABLED;
+
+            return (Tracer) Class.forName("me.vaperion.blade.trace.jfr.FlightRecorderTracer").getDeclaredConstructor().newInstance();
+        } catch (Throwable t) {
+            return Tracer.DISABLED;
+        }
+    }
+
+    public interface Tracer {
+        Tracer DISABLED = phase -> Span.DISABLED;
+
+        @NotNull
+        Span begin(@NotNull Phase phase);
+    }
+
+}
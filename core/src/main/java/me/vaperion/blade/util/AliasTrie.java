@@ -0,0 +1,128 @@
+package me.vaperion.blade.util;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Predicate;
+
+/**
+ * A case-insensitive word trie, keyed by the space separated words of command aliases.
+ * <p>
+ * Every node may hold multiple values (in insertion order) for the same alias, the first one is
+ * returned when resolving, matching the behavior of scanning the registered commands in order.
+ * <p>
+ * Snapshots taken with {@link #snapshot(AliasTrie, Set)} are read-only, and safe to resolve from any thread.
+ */
+public final class AliasTrie<V> {
+
+    private final Node<V> root = new Node<>();
+    private final boolean readOnly;
+
+    public AliasTrie() {
+        this(false);
+    }
+
+    private AliasTrie(boolean readOnly) {
+        this.readOnly = readOnly;
+    }
+
+    public void insert(@NotNull String alias, @NotNull V value) {
+        checkWritable();
+
+        Node<V> node = root;
+        for (String word : alias.split(" ")) {
+            node = node.children.computeIfAbsent(word.toLowerCase(Locale.ROOT), $ -> new Node<>());
+        }
+        node.values.add(value);
+    }
+
+    public void remove(@NotNull String alias, @NotNull Predicate<V> filter) {
+        checkWritable();
+        remove(root, alias.split(" "), 0, filter);
+    }
+
+    /**
+     * Creates a read-only copy of this trie. The subtrees of base commands not in {@code changed} are shared with
+     * {@code previous}, an earlier snapshot of this trie, so only the changed base commands are copied.
+     *
+     * @param previous the last snapshot taken from this trie, or null to copy everything
+     * @param changed  the lower case base commands inserted into or removed from since {@code previous} was taken
+     */
+    @NotNull
+    public AliasTrie<V> snapshot(@Nullable AliasTrie<V> previous, @NotNull Set<String> changed) {
+        AliasTrie<V> snapshot = new AliasTrie<>(true);
+
+        for (Map.Entry<String, Node<V>> entry : root.children.entrySet()) {
+            Node<V> shared = previous == null || changed.contains(entry.getKey()) ? null : previous.root.children.get(entry.getKey());
+            snapshot.root.children.put(entry.getKey(), shared != null ? shared : entry.getValue().copy());
+        }
+
+        return snapshot;
+    }
+
+    private void checkWritable() {
+        if (readOnly) throw new UnsupportedOperationException("This alias trie is a read-only snapshot");
+    }
+
+    private boolean remove(Node<V> node, String[] words, int index, Predicate<V> filter) {
+        if (index == words.length) {
+            node.values.removeIf(filter);
+        } else {
+            String word = words[index].toLowerCase(Locale.ROOT);
+            Node<V> child = node.children.get(word);
+            if (child != null && remove(child, words, index + 1, filter)) node.children.remove(word);
+        }
+
+        return node.values.isEmpty() && node.children.isEmpty();
+    }
+
+    /**
+     * Finds the value registered for the longest alias matching the given words.
+     *
+     * @param head   the first word (base command)
+     * @param tail   the remaining words
+     * @param offset the index in {@code tail} to start reading from
+     * @return the matched value, or null if not even the base command matched
+     */
+    @Nullable
+    public V resolve(@NotNull String head, @NotNull String[] tail, int offset) {
+        return resolve(head, CommandLine.of(tail), offset);
+    }
+
+    /**
+     * Same as {@link #resolve(String, String[], int)}, reading the remaining words from the tokens of a command line.
+     */
+    @Nullable
+    public V resolve(@NotNull String head, @NotNull CommandLine tail, int offset) {
+        Node<V> node = root.children.get(head.toLowerCase(Locale.ROOT));
+        V match = null;
+
+        for (int i = offset; node != null; i++) {
+            if (!node.values.isEmpty()) match = node.values.get(0);
+            if (i >= tail.size() || node.children.isEmpty()) break;
+
+            node = node.children.get(tail.get(i).toLowerCase(Locale.ROOT));
+        }
+
+        return match;
+    }
+
+    private static final class Node<V> {
+        private final Map<String, Node<V>> children = new HashMap<>(4);
+        private final List<V> values = new ArrayList<>(1);
+
+        private Node<V> copy() {
+            Node<V> copy = new Node<>();
+            copy.values.addAll(values);
+            children.forEach((word, child) -> copy.children.put(word, child.copy()));
+            return copy;
+        }
+    }
+
+}
@@ -0,0 +1,58 @@
+package me.vaperion.blade.util;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.AnnotatedElement;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+/**
+ * An {@link AnnotatedElement} backed by a fixed set of annotation instances,
+ * used by generated command dispatchers in place of the reflective method and parameters.
+ */
+public final class AnnotationSet implements AnnotatedElement {
+
+    private final Annotation[] annotations;
+    private final Map<Class<? extends Annotation>, Annotation> byType;
+
+    public AnnotationSet(@NotNull Annotation... annotations) {
+        this.annotations = annotations;
+        this.byType = new IdentityHashMap<>(annotations.length);
+
+        for (Annotation annotation : annotations) {
+            byType.putIfAbsent(annotation.annotationType(), annotation);
+        }
+    }
+
+    @Nullable
+    @Override
+    public <T extends Annotation> T getAnnotation(@NotNull Class<T> annotationClass) {
+        return annotationClass.cast(byType.get(annotationClass));
+    }
+
+    @Override
+    public boolean isAnnotationPresent(@NotNull Class<? extends Annotation> annotationClass) {
+        return byType.containsKey(annotationClass);
+    }
+
+    @NotNull
+    @Override
+    public Annotation[] getAnnotations() {
+        return annotations.clone();
+    }
+
+    @NotNull
+    @Override
+    public Annotation[] getDeclaredAnnotations() {
+        return annotations.clone();
+    }
+
+    @Override
+    public String toString() {
+        return Arrays.toString(annotations);
+    }
+
+}
@@ -0,0 +1,173 @@
+package me.vaperion.blade.util;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+/**
+ * Runs {@link me.vaperion.blade.annotation.command.Async} commands, at most a given amount at once.
+ * <p>
+ * On runtimes with virtual threads (Java 21+) every command gets its own virtual thread, and commands over the limit
+ * wait for a permit on their (cheap) thread. On older runtimes, a pool of at most that many platform threads is used.
+ */
+public final class AsyncExecutor implements Consumer<Runnable> {
+
+    private static final MethodHandle NEW_VIRTUAL_THREAD_EXECUTOR = findVirtualThreadExecutor();
+    private static final boolean VIRTUAL_THREADS_SUPPORTED = probeVirtualThreads();
+
+    private final ExecutorService executor;
+    private final boolean virtual;
+    @Nullable private final Semaphore permits;
+
+    private final LongAdder submitted = new LongAdder(), completed = new LongAdder();
+    private final AtomicInteger waiting = new AtomicInteger(), active = new AtomicInteger();
+    private final LongAccumulator peakActive = new LongAccumulator(Math::max, 0L);
+
+    /**
+     * @param maximumConcurrency the amount of commands that may run at once, or 0 for no limit
+     */
+    public AsyncExecutor(int maximumConcurrency) {
+        Preconditions.checkState(maximumConcurrency >= 0, "Maximum concurrency cannot be negative.");
+
+        ExecutorService virtualExecutor = newVirtualThreadExecutor();
+        this.virtual = virtualExecutor != null;
+
+        if (virtual) {
+            this.executor = virtualExecutor;
+            this.permits = maximumConcurrency == 0 ? null : new Semaphore(maximumConcurrency, true);
+        } else {
+            this.executor = maximumConcurrency == 0 ? Executors.newCachedThreadPool(new DaemonThreadFactory("Blade Async")) : newBoundedPool(maximumConcurrency);
+            this.permits = null; // the pool never runs more commands at once
+        }
+    }
+
+    /**
+     * @return whether virtual threads can be used, which requires Java 21+ (or 19/20 with preview features enabled)
+     */
+    public static boolean isVirtualThreadsSupported() {
+        return VIRTUAL_THREADS_SUPPORTED;
+    }
+
+    @Override
+    public void accept(@NotNull Runnable runnable) {
+        submitted.increment();
+        waiting.incrementAndGet();
+
+        executor.execute(() -> {
+            if (permits != null) permits.acquireUninterruptibly();
+            waiting.decrementAndGet();
+            peakActive.accumulate(active.incrementAndGet());
+
+            try {
+                runnable.run();
+            } finally {
+                active.decrementAndGet();
+                completed.increment();
+                if (permits != null) permits.release();
+            }
+        });
+    }
+
+    public boolean isVirtual() {
+        return virtual;
+    }
+
+    public long getSubmitted() {
+        return submitted.sum();
+    }
+
+    public long getCompleted() {
+        return completed.sum();
+    }
+
+    /**
+     * @return the amount of submitted commands that didn't start yet
+     */
+    public int getWaiting() {
+        return waiting.get();
+    }
+
+    public int getActive() {
+        return active.get();
+    }
+
+    public long getPeakActive() {
+        return peakActive.get();
+    }
+
+    /**
+     * Stops accepting commands, the ones already submitted still run.
+     */
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    private static ExecutorService newBoundedPool(int threads) {
+        ThreadPoolExecutor pool = new ThreadPoolExecutor(threads, threads, 60L, TimeUnit.SECONDS, new LinkedBlockingQueue<>(), new DaemonThreadFactory("Blade Async"));
+        pool.allowCoreThreadTimeOut(true);
+        return pool;
+    }
+
+    @Nullable
+    private static ExecutorService newVirtualThreadExecutor() {
+        if (!VIRTUAL_THREADS_SUPPORTED) return null;
+
+        try {
+            return (ExecutorService) NEW_VIRTUAL_THREAD_EXECUTOR.invoke();
+        } catch (Throwable t) {
+            return null;
+        }
+    }
+
+    // The method exists on preview versions (19, 20) too, which throw if preview features are disabled
+    private static boolean probeVirtualThreads() {
+        if (NEW_VIRTUAL_THREAD_EXECUTOR == null) return false;
+
+        try {
+            ((ExecutorService) NEW_VIRTUAL_THREAD_EXECUTOR.invoke()).shutdown();
+            return true;
+        } catch (Throwable t) {
+            return false;
+        }
+    }
+
+    @Nullable
+    private static MethodHandle findVirtualThreadExecutor() {
+        try {
+            return MethodHandles.publicLookup().findStatic(Executors.class, "newVirtualThreadPerTaskExecutor", MethodType.methodType(ExecutorService.class));
+        } catch (NoSuchMethodException | IllegalAccessException ex) {
+            return null;
+        }
+    }
+
+    static final class DaemonThreadFactory implements ThreadFactory {
+        private final String name;
+        private final AtomicInteger count = new AtomicInteger();
+
+        DaemonThreadFactory(String name) {
+            this.name = name;
+        }
+
+        @Override
+        public Thread newThread(@NotNull Runnable runnable) {
+            Thread thread = new Thread(runnable, name + " #" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+
+}
@@ -0,0 +1,213 @@
+package me.vaperion.blade.util;
+
+import lombok.Getter;
+import me.vaperion.blade.exception.BladeExitMessage;
+import me.vaperion.blade.metrics.LatencyHistogram;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A named pool of threads for {@link me.vaperion.blade.annotation.command.Async} commands, declared with
+ * {@code Blade.Builder#pool} and selected with {@code @Async(pool = ...)}, so slow command families can't starve the others.
+ * <p>
+ * Waiting commands run by priority (highest first), and in submission order within the same priority.
+ */
+public final class AsyncPool {
+
+    @Getter private final String name;
+    private final int threads, maximumQueued;
+    private final RejectionPolicy rejectionPolicy;
+
+    private final ThreadPoolExecutor executor;
+    private final PriorityBlockingQueue<Runnable> queue = new PriorityBlockingQueue<>();
+    private final AtomicLong sequence = new AtomicLong();
+
+    private final LongAdder submitted = new LongAdder(), completed = new LongAdder(), rejected = new LongAdder();
+    private final AtomicInteger active = new AtomicInteger();
+    private final LatencyHistogram waitTime = new LatencyHistogram();
+
+    /**
+     * @param threads         the amount of commands that may run at once
+     * @param maximumQueued   the amount of commands that may wait for a thread, or 0 for no limit
+     * @param rejectionPolicy what happens to commands submitted while the queue is full
+     */
+    public AsyncPool(@NotNull String name, int threads, int maximumQueued, @NotNull RejectionPolicy rejectionPolicy) {
+        Preconditions.checkState(threads > 0, "Async pool '" + name + "' needs at least one thread.");
+        Preconditions.checkState(maximumQueued >= 0, "Maximum queued commands cannot be negative.");
+
+        this.name = name;
+        this.threads = threads;
+        this.maximumQueued = maximumQueued;
+        this.rejectionPolicy = rejectionPolicy;
+
+        this.executor = new ThreadPoolExecutor(threads, threads, 60L, TimeUnit.SECONDS, queue, new AsyncExecutor.DaemonThreadFactory("Blade " + name));
+        this.executor.allowCoreThreadTimeOut(true);
+    }
+
+    /**
+     * Submits the command, which overtakes the waiting commands with a lower priority.
+     *
+     * @throws BladeExitMessage if the queue is full and the command was rejected
+     */
+    public void execute(@NotNull Runnable runnable, int priority) throws BladeExitMessage {
+        execute(runnable, priority, null);
+    }
+
+    /**
+     * Submits the command, which overtakes the waiting commands with a lower priority.
+     *
+     * @param onDropped run instead of the command if it's dropped or evicted because the queue is full
+     * @throws BladeExitMessage if the queue is full and the command was rejected
+     */
+    public void execute(@NotNull Runnable runnable, int priority, @Nullable Runnable onDropped) throws BladeExitMessage {
+        submitted.increment();
+        Task evicted = null;
+
+        if (maximumQueued > 0 && waiting() >= maximumQueued && (evicted = evictFor(priority)) == null) {
+            rejected.increment();
+            if (rejectionPolicy != RejectionPolicy.DROP) throw new BladeExitMessage("The server is busy, please try again later.");
+
+            if (onDropped != null) onDropped.run();
+            return;
+        }
+
+        try {
+            executor.execute(new Task(runnable, onDropped, priority, sequence.getAndIncrement()));
+        } finally {
+            // Only once the new command took its place, so the callback can't take it
+            if (evicted != null && evicted.onDropped != null) evicted.onDropped.run();
+        }
+    }
+
+    /**
+     * @return the amount of queued commands that idle threads won't pick up, the queue may briefly hold commands that are
+     * about to start, such as during a burst, which don't count towards the maximum
+     */
+    private int waiting() {
+        return Math.max(0, queue.size() - Math.max(0, threads - active.get()));
+    }
+
+    /**
+     * Removes the waiting command with the lowest priority, if the policy allows it and it's lower than the given priority.
+     */
+    @Nullable
+    private Task evictFor(int priority) {
+        if (rejectionPolicy != RejectionPolicy.DROP_LOWEST_PRIORITY) return null;
+
+        Task lowest = null;
+        for (Runnable runnable : queue) {
+            Task task = (Task) runnable;
+            if (lowest == null || task.compareTo(lowest) > 0) lowest = task;
+        }
+
+        if (lowest == null || lowest.priority >= priority || !queue.remove(lowest)) return null;
+
+        rejected.increment();
+        return lowest;
+    }
+
+    public long getSubmitted() {
+        return submitted.sum();
+    }
+
+    public long getCompleted() {
+        return completed.sum();
+    }
+
+    /**
+     * @return the amount of commands that were rejected, dropped or evicted because the queue was full
+     */
+    public long getRejected() {
+        return rejected.sum();
+    }
+
+    /**
+     * @return the amount of submitted commands that didn't start yet
+     */
+    public int getQueued() {
+        return queue.size();
+    }
+
+    public int getActive() {
+        return active.get();
+    }
+
+    public long getWaitP50Micros() {
+        return TimeUnit.NANOSECONDS.toMicros(waitTime.getPercentile(0.50));
+    }
+
+    public long getWaitP99Micros() {
+        return TimeUnit.NANOSECONDS.toMicros(waitTime.getPercentile(0.99));
+    }
+
+    public long getWaitMaxMicros() {
+        return TimeUnit.NANOSECONDS.toMicros(waitTime.getMax());
+    }
+
+    /**
+     * Stops accepting commands, the ones already submitted still run.
+     */
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    public enum RejectionPolicy {
+        /**
+         * The new command is not run, and the sender is told that the server is busy.
+         */
+        REJECT,
+
+        /**
+         * The new command is silently dropped.
+         */
+        DROP,
+
+        /**
+         * The waiting command with the lowest priority is dropped if the new command has a higher priority,
+         * otherwise the new command is rejected.
+         */
+        DROP_LOWEST_PRIORITY
+    }
+
+    private final class Task implements Runnable, Comparable<Task> {
+        private final Runnable runnable;
+        private final Runnable onDropped;
+        private final int priority;
+        private final long sequence;
+        private final long submitted = System.nanoTime();
+
+        private Task(Runnable runnable, Runnable onDropped, int priority, long sequence) {
+            this.runnable = runnable;
+            this.onDropped = onDropped;
+            this.priority = priority;
+            this.sequence = sequence;
+        }
+
+        @Override
+        public void run() {
+            waitTime.record(System.nanoTime() - submitted);
+            active.incrementAndGet();
+
+            try {
+                runnable.run();
+            } finally {
+                active.decrementAndGet();
+                completed.increment();
+            }
+        }
+
+        @Override
+        public int compareTo(@NotNull Task other) {
+            if (priority != other.priority) return Integer.compare(other.priority, priority);
+            return Long.compare(sequence, other.sequence);
+        }
+    }
+
+}
@@ -0,0 +1,144 @@
+package me.vaperion.blade.util;
+
+import me.vaperion.blade.annotation.argument.Alias;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * An immutable, case-insensitive index of a fixed set of choices (such as the constants of an enum), which is safe to query from any thread.
+ * <p>
+ * Names are folded and sorted once, so prefix queries are a binary search followed by a scan of the matching range,
+ * and exact lookups are a single hash lookup. A choice may be {@link Builder#add added} under several names, which are all
+ * suggested and parsed, and have {@link Builder#alias aliases}, which are only parsed. The {@link Alias} names of enum
+ * constants are added as names, so they are suggested as well.
+ */
+public final class ChoiceIndex<T> {
+
+    private static final ClassValue<ChoiceIndex<?>> ENUMS = new ClassValue<ChoiceIndex<?>>() {
+        @Override
+        protected ChoiceIndex<?> computeValue(Class<?> type) {
+            return ofEnumConstants(type);
+        }
+    };
+
+    private final String[] keys;
+    private final String[] names;
+    private final Map<String, T> values;
+
+    private ChoiceIndex(String[] keys, String[] names, Map<String, T> values) {
+        this.keys = keys;
+        this.names = names;
+        this.values = values;
+    }
+
+    @NotNull
+    public static <T> Builder<T> builder() {
+        return new Builder<>();
+    }
+
+    /**
+     * The index of the constants of the enum, built once per enum. Constants are suggested by their lower case name,
+     * and can be annotated with {@link Alias} to suggest and parse them by other names as well.
+     */
+    @NotNull
+    @SuppressWarnings("unchecked")
+    public static <E extends Enum<?>> ChoiceIndex<E> ofEnum(@NotNull Class<E> enumClass) {
+        return (ChoiceIndex<E>) ENUMS.get(enumClass);
+    }
+
+    /**
+     * @return the choice with exactly the given name or alias (ignoring case)
+     */
+    @Nullable
+    public T get(@NotNull String name) {
+        return values.get(fold(name));
+    }
+
+    /**
+     * @return the names starting with the given prefix (ignoring case) in alphabetical order
+     */
+    @NotNull
+    public List<String> suggest(@NotNull String prefix) {
+        String folded = fold(prefix);
+        if (folded.isEmpty()) return new ArrayList<>(Arrays.asList(names));
+
+        int index = Arrays.binarySearch(keys, folded);
+        if (index < 0) index = -index - 1;
+
+        List<String> suggestions = new ArrayList<>();
+        for (; index < keys.length && keys[index].startsWith(folded); index++) {
+            suggestions.add(names[index]);
+        }
+
+        return suggestions;
+    }
+
+    public int size() {
+        return keys.length;
+    }
+
+    private static ChoiceIndex<?> ofEnumConstants(Class<?> type) {
+        Builder<Object> builder = new Builder<>();
+
+        for (Object constant : type.getEnumConstants()) {
+            String name = ((Enum<?>) constant).name();
+            builder.add(name.toLowerCase(Locale.ROOT), constant);
+
+            try {
+                Field field = type.getField(name);
+                Alias alias = field.getAnnotation(Alias.class);
+                if (alias != null) for (String aliasName : alias.value()) builder.add(aliasName, constant);
+            } catch (NoSuchFieldException ignored) {
+            }
+        }
+
+        return builder.build();
+    }
+
+    private static String fold(String name) {
+        return name.toLowerCase(Locale.ROOT);
+    }
+
+    public static final class Builder<T> {
+        private final TreeMap<String, String> names = new TreeMap<>();
+        private final Map<String, T> values = new HashMap<>();
+
+        private Builder() {
+        }
+
+        /**
+         * Adds a choice that is suggested and parsed by the given name. The first choice added under a name wins.
+         */
+        @NotNull
+        public Builder<T> add(@NotNull String name, @NotNull T value) {
+            if (values.putIfAbsent(fold(name), value) == null) names.put(fold(name), name);
+            return this;
+        }
+
+        /**
+         * Adds a name the choice is parsed by, but not suggested as.
+         */
+        @NotNull
+        public Builder<T> alias(@NotNull String name, @NotNull T value) {
+            values.putIfAbsent(fold(name), value);
+            return this;
+        }
+
+        @NotNull
+        public ChoiceIndex<T> build() {
+            return new ChoiceIndex<>(names.keySet().toArray(new String[0]), names.values().toArray(new String[0]),
+                  Collections.unmodifiableMap(new HashMap<>(values)));
+        }
+    }
+
+}
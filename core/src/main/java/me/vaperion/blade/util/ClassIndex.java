@@ -0,0 +1,289 @@
+package me.vaperion.blade.util;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.jar.JarEntry;
+import java.util.jar.JarFile;
+import java.util.stream.Stream;
+
+/**
+ * An index of the classes in a jar (or class directory) built by reading their class files, without loading them.
+ * <p>
+ * For every class only its super class and whether one of its methods carries the indexed annotation are kept,
+ * which is found by looking up the annotation's descriptor in the constant pool and then in the
+ * {@code RuntimeVisibleAnnotations} of the methods. Jar indexes are cached until the jar is modified.
+ */
+final class ClassIndex {
+
+    private static final Map<String, ClassIndex> CACHE = new ConcurrentHashMap<>();
+
+    private static final int MAGIC = 0xCAFEBABE;
+    private static final byte[] ANNOTATIONS_ATTRIBUTE = "RuntimeVisibleAnnotations".getBytes(StandardCharsets.UTF_8);
+
+    private final long lastModified, length;
+    private final Map<String, String> superClasses = new HashMap<>();
+    private final Set<String> annotated = new HashSet<>();
+
+    private ClassIndex(long lastModified, long length) {
+        this.lastModified = lastModified;
+        this.length = length;
+    }
+
+    @NotNull
+    static ClassIndex of(@NotNull File file, @NotNull String annotationDescriptor) throws IOException {
+        if (file.isDirectory()) return ofDirectory(file.toPath(), annotationDescriptor.getBytes(StandardCharsets.UTF_8));
+
+        String key = file.getAbsolutePath() + "|" + annotationDescriptor;
+        ClassIndex index = CACHE.get(key);
+        if (index != null && index.lastModified == file.lastModified() && index.length == file.length()) return index;
+
+        index = ofJar(file, annotationDescriptor.getBytes(StandardCharsets.UTF_8));
+        CACHE.put(key, index);
+        return index;
+    }
+
+    /**
+     * Finds the classes under the given package path that declare or inherit (from a class in the same index) an annotated method.
+     */
+    @NotNull
+    List<String> find(@NotNull String packagePath) {
+        String prefix = packagePath.replace('/', '.');
+        List<String> classes = new ArrayList<>();
+
+        for (String name : superClasses.keySet()) {
+            if (!name.startsWith(prefix)) continue;
+
+            for (String current = name; current != null; current = superClasses.get(current)) {
+                if (annotated.contains(current)) {
+                    classes.add(name);
+                    break;
+                }
+            }
+        }
+
+        Collections.sort(classes);
+        return classes;
+    }
+
+    private static ClassIndex ofJar(File file, byte[] descriptor) throws IOException {
+        ClassIndex index = new ClassIndex(file.lastModified(), file.length());
+
+        try (JarFile jarFile = new JarFile(file)) {
+            Enumeration<JarEntry> entries = jarFile.entries();
+
+            while (entries.hasMoreElements()) {
+                JarEntry entry = entries.nextElement();
+                if (!entry.getName().endsWith(".class") || entry.getName().startsWith("META-INF/")) continue;
+
+                try (InputStream in = jarFile.getInputStream(entry)) {
+                    index.add(readFully(in, (int) entry.getSize()), descriptor);
+                }
+            }
+        }
+
+        return index;
+    }
+
+    private static ClassIndex ofDirectory(Path directory, byte[] descriptor) throws IOException {
+        ClassIndex index = new ClassIndex(-1, -1);
+
+        try (Stream<Path> files = Files.walk(directory)) {
+            for (Path path : (Iterable<Path>) files::iterator) {
+                if (path.toString().endsWith(".class")) index.add(Files.readAllBytes(path), descriptor);
+            }
+        }
+
+        return index;
+    }
+
+    private void add(byte[] bytes, byte[] descriptor) {
+        try {
+            ClassReader reader = new ClassReader(bytes);
+            if (!reader.read(descriptor)) return;
+
+            superClasses.put(reader.name, reader.superName);
+            if (reader.annotated) annotated.add(reader.name);
+        } catch (IOException | RuntimeException ignored) {
+            // not a class file we understand, it can't be registered from a package either way
+        }
+    }
+
+    private static byte[] readFully(InputStream in, int size) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(size > 0 ? size : 4096);
+        byte[] buffer = new byte[4096];
+        int read;
+        while ((read = in.read(buffer)) != -1) out.write(buffer, 0, read);
+        return out.toByteArray();
+    }
+
+    private static final class ClassReader {
+        private final byte[] bytes;
+        private int position;
+
+        private String name, superName;
+        private boolean annotated;
+
+        private ClassReader(byte[] bytes) {
+            this.bytes = bytes;
+        }
+
+        private boolean read(byte[] descriptor) throws IOException {
+            if (bytes.length < 10 || readInt() != MAGIC) return false;
+            position += 4; // minor and major version
+
+            int count = readShort();
+            int[] utf8Offsets = new int[count];
+            int[] classNames = new int[count];
+            int descriptorIndex = -1, attributeIndex = -1;
+
+            for (int i = 1; i < count; i++) {
+                int tag = bytes[position++] & 0xFF;
+                switch (tag) {
+                    case 1: // Utf8
+                        utf8Offsets[i] = position;
+                        int length = readShort();
+                        if (matches(descriptor, length)) descriptorIndex = i;
+                        else if (matches(ANNOTATIONS_ATTRIBUTE, length)) attributeIndex = i;
+                        position += length;
+                        break;
+                    case 7: // Class
+                        classNames[i] = readShort();
+                        break;
+                    case 8: case 16: case 19: case 20: // String, MethodType, Module, Package
+                        position += 2;
+                        break;
+                    case 15: // MethodHandle
+                        position += 3;
+                        break;
+                    case 3: case 4: case 9: case 10: case 11: case 12: case 17: case 18:
+                        position += 4;
+                        break;
+                    case 5: case 6: // Long and Double take two entries
+                        position += 8;
+                        i++;
+                        break;
+                    default:
+                        throw new IOException("Unknown constant pool tag " + tag);
+                }
+            }
+
+            position += 2; // access flags
+            int thisClass = readShort(), superClass = readShort();
+            this.name = utf8(utf8Offsets[classNames[thisClass]]).replace('/', '.');
+            this.superName = superClass == 0 ? null : utf8(utf8Offsets[classNames[superClass]]).replace('/', '.');
+
+            if (descriptorIndex == -1 || attributeIndex == -1) return true;
+
+            int interfaces = readShort();
+            position += interfaces * 2;
+
+            int fields = readShort();
+            for (int i = 0; i < fields; i++) {
+                position += 6;
+                skipAttributes();
+            }
+
+            int methods = readShort();
+            for (int i = 0; i < methods && !annotated; i++) {
+                position += 6;
+
+                int attributes = readShort();
+                for (int j = 0; j < attributes; j++) {
+                    int attributeName = readShort();
+                    int length = readInt();
+                    int end = position + length;
+
+                    if (attributeName == attributeIndex) {
+                        int annotations = readShort();
+                        for (int k = 0; k < annotations && !annotated; k++) {
+                            if (readShort() == descriptorIndex) annotated = true;
+                            else skipAnnotationBody();
+                        }
+                    }
+
+                    position = end;
+                }
+            }
+
+            return true;
+        }
+
+        private void skipAttributes() {
+            int attributes = readShort();
+            for (int i = 0; i < attributes; i++) {
+                position += 2;
+                int length = readInt();
+                position += length;
+            }
+        }
+
+        private void skipAnnotationBody() throws IOException {
+            int pairs = readShort();
+            for (int i = 0; i < pairs; i++) {
+                position += 2;
+                skipElementValue();
+            }
+        }
+
+        private void skipElementValue() throws IOException {
+            char tag = (char) (bytes[position++] & 0xFF);
+            switch (tag) {
+                case 'B': case 'C': case 'D': case 'F': case 'I': case 'J': case 'S': case 'Z': case 's': case 'c':
+                    position += 2;
+                    break;
+                case 'e':
+                    position += 4;
+                    break;
+                case '@':
+                    position += 2;
+                    skipAnnotationBody();
+                    break;
+                case '[':
+                    int values = readShort();
+                    for (int i = 0; i < values; i++) skipElementValue();
+                    break;
+                default:
+                    throw new IOException("Unknown element value tag " + tag);
+            }
+        }
+
+        private boolean matches(byte[] expected, int length) {
+            if (length != expected.length) return false;
+            for (int i = 0; i < length; i++) {
+                if (bytes[position + i] != expected[i]) return false;
+            }
+            return true;
+        }
+
+        private String utf8(int offset) throws IOException {
+            return new DataInputStream(new ByteArrayInputStream(bytes, offset, bytes.length - offset)).readUTF();
+        }
+
+        private int readShort() {
+            return ((bytes[position++] & 0xFF) << 8) | (bytes[position++] & 0xFF);
+        }
+
+        private int readInt() {
+            return (readShort() << 16) | readShort();
+        }
+    }
+
+}
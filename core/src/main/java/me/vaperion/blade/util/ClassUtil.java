@@ -1,22 +1,23 @@
 package me.vaperion.blade.util;
 
 import lombok.experimental.UtilityClass;
+import me.vaperion.blade.annotation.command.Command;
 import org.jetbrains.annotations.NotNull;
 
+import java.io.File;
 import java.lang.reflect.Parameter;
 import java.lang.reflect.ParameterizedType;
 import java.lang.reflect.Type;
 import java.net.URL;
 import java.security.CodeSource;
 import java.util.ArrayList;
-import java.util.Enumeration;
 import java.util.List;
-import java.util.jar.JarEntry;
-import java.util.jar.JarFile;
 
 @UtilityClass
 public class ClassUtil {
 
+    private static final String COMMAND_DESCRIPTOR = "L" + Command.class.getName().replace('.', '/') + ";";
+
     public boolean classExists(@NotNull String className) {
         try {
             Class.forName(className);
@@ -26,6 +27,10 @@ public class ClassUtil {
         }
     }
 
+    /**
+     * Finds the classes in the given package (and its subpackages) of the jar containing the given class which declare or inherit commands.
+     * The class files are read directly, so only the matching classes are loaded and none of them are initialized.
+     */
     @NotNull
     public List<Class<?>> getClassesInPackage(@NotNull Class<?> clazz, @NotNull String packageName) {
         List<Class<?>> classes = new ArrayList<>();
@@ -39,20 +44,13 @@ public class ClassUtil {
         String jarPath = path.contains("!") ? path.substring(0, path.lastIndexOf("!")) : path;
         if (jarPath.startsWith("file:")) jarPath = jarPath.substring(5);
 
-        try (JarFile jarFile = new JarFile(jarPath)) {
-            Enumeration<JarEntry> entries = jarFile.entries();
-
-            while (entries.hasMoreElements()) {
-                JarEntry entry = entries.nextElement();
-                String name = entry.getName();
-
-                if (name.startsWith(packagePath) && name.endsWith(".class")) {
-                    String className = name.substring(0, name.lastIndexOf(".")).replace("/", ".");
+        try {
+            ClassIndex index = ClassIndex.of(new File(jarPath), COMMAND_DESCRIPTOR);
 
-                    try {
-                        classes.add(Class.forName(className));
-                    } catch (ClassNotFoundException ignored) {}
-                }
+            for (String className : index.find(packagePath)) {
+                try {
+                    classes.add(Class.forName(className, false, clazz.getClassLoader()));
+                } catch (ClassNotFoundException | LinkageError ignored) {}
             }
         } catch (Exception e) {
             throw new RuntimeException("Failed to get classes in package " + packageName, e);
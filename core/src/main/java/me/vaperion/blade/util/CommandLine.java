@@ -0,0 +1,322 @@
+package me.vaperion.blade.util;
+
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Arrays;
+
+/**
+ * A command line split into tokens in a single pass, where every token is an offset/length view into the original line.
+ * <p>
+ * Plain tokenization follows {@code line.split(" ")}: every space separates two tokens (so consecutive spaces produce
+ * empty tokens) and trailing empty tokens are dropped. Quoted tokenization treats {@code "..."} and {@code '...'}
+ * at the start of a token as a single token, supports {@code \"}, {@code \'} and {@code \\} escapes, and skips empty tokens.
+ * <p>
+ * Token strings are only created when they are requested, and rest-of-line slices are substrings of the original line.
+ */
+public final class CommandLine {
+
+    private static final char ESCAPE = '\\';
+
+    @NotNull
+    @Contract("_ -> new")
+    public static CommandLine parse(@NotNull String line) {
+        return parse(line, 0, false);
+    }
+
+    /**
+     * Tokenizes the line for completion: if the line ends with a space, a single empty token is added at its end,
+     * representing the argument that is currently being typed.
+     */
+    @NotNull
+    @Contract("_ -> new")
+    public static CommandLine parseForCompletion(@NotNull String line) {
+        return parse(line, 0, true);
+    }
+
+    @NotNull
+    @Contract("_, _, _ -> new")
+    public static CommandLine parse(@NotNull String line, int from, boolean completion) {
+        CommandLine result = new CommandLine(line, Math.max(4, (line.length() - from) / 4));
+
+        int tokenStart = from, lastNonEmpty = 0;
+        for (int i = from; i <= line.length(); i++) {
+            if (i != line.length() && line.charAt(i) != ' ') continue;
+
+            result.add(tokenStart, i, false);
+            if (i != tokenStart) lastNonEmpty = result.size;
+            tokenStart = i + 1;
+        }
+
+        result.size = lastNonEmpty; // drop trailing empty tokens, like String#split does
+        if (completion && line.length() > from && line.charAt(line.length() - 1) == ' ')
+            result.add(line.length(), line.length(), false);
+
+        return result;
+    }
+
+    /**
+     * Tokenizes the line starting at the given character offset, combining quoted arguments into a single token.
+     */
+    @NotNull
+    @Contract("_, _, _ -> new")
+    public static CommandLine parseQuoted(@NotNull String line, int from, boolean completion) {
+        CommandLine result = new CommandLine(line, Math.max(4, (line.length() - from) / 4));
+
+        int i = from, length = line.length();
+        while (i < length) {
+            char c = line.charAt(i);
+            if (c == ' ') {
+                i++;
+                continue;
+            }
+
+            if (c == '"' || c == '\'') {
+                int start = ++i;
+                boolean escaped = false;
+
+                while (i < length && line.charAt(i) != c) {
+                    if (line.charAt(i) == ESCAPE && i + 1 < length && isEscapable(line.charAt(i + 1))) {
+                        escaped = true;
+                        i++;
+                    }
+                    i++;
+                }
+
+                result.add(start, Math.min(i, length), escaped);
+                result.transformed = true;
+                i++; // skip the closing quote
+                continue;
+            }
+
+            int start = i;
+            boolean escaped = false;
+
+            while (i < length && line.charAt(i) != ' ') {
+                if (line.charAt(i) == ESCAPE && i + 1 < length && isEscapable(line.charAt(i + 1))) {
+                    escaped = true;
+                    i++;
+                }
+                i++;
+            }
+
+            result.add(start, i, escaped);
+            if (escaped) result.transformed = true;
+        }
+
+        for (int token = 1; token < result.size && !result.transformed; token++) {
+            // rest-of-line slices can only be taken from the original text if tokens are separated by a single space
+            if (result.ends[token - 1] + 1 != result.starts[token]) result.transformed = true;
+        }
+
+        if (completion && length > from && line.charAt(length - 1) == ' ' && !result.isInsideQuotes(length))
+            result.add(length, length, false);
+
+        return result;
+    }
+
+    /**
+     * Creates a command line from an alias (possibly containing multiple words) and already split arguments.
+     * The backing line is built in a single pass, and the existing argument strings are reused as tokens.
+     */
+    @NotNull
+    @Contract("_, _ -> new")
+    public static CommandLine of(@NotNull String alias, @NotNull String[] args) {
+        StringBuilder builder = new StringBuilder(alias.length() + args.length * 8);
+        String[] words = alias.isEmpty() ? new String[0] : alias.split(" ");
+        String[] tokens = new String[words.length + args.length];
+
+        int[] starts = new int[tokens.length], ends = new int[tokens.length];
+        int index = 0;
+
+        for (String word : words) {
+            if (index != 0) builder.append(' ');
+            starts[index] = builder.length();
+            builder.append(word);
+            ends[index] = builder.length();
+            tokens[index++] = word;
+        }
+
+        for (String arg : args) {
+            if (index != 0) builder.append(' ');
+            starts[index] = builder.length();
+            builder.append(arg);
+            ends[index] = builder.length();
+            tokens[index++] = arg;
+        }
+
+        CommandLine result = new CommandLine(builder.toString(), starts, ends, tokens.length);
+        result.tokens = tokens;
+        return result;
+    }
+
+    @NotNull
+    @Contract("_ -> new")
+    public static CommandLine of(@NotNull String[] args) {
+        return of("", args);
+    }
+
+    private static boolean isEscapable(char c) {
+        return c == '"' || c == '\'' || c == ESCAPE;
+    }
+
+    private final String line;
+    private int[] starts, ends;
+    private boolean[] escaped;
+    private int size;
+
+    private boolean transformed;
+    private String[] tokens;
+
+    private CommandLine(String line, int capacity) {
+        this(line, new int[capacity], new int[capacity], 0);
+    }
+
+    private CommandLine(String line, int[] starts, int[] ends, int size) {
+        this.line = line;
+        this.starts = starts;
+        this.ends = ends;
+        this.escaped = new boolean[starts.length];
+        this.size = size;
+    }
+
+    private void add(int start, int end, boolean escaped) {
+        if (size == starts.length) {
+            int capacity = starts.length * 2;
+            starts = Arrays.copyOf(starts, capacity);
+            ends = Arrays.copyOf(ends, capacity);
+            this.escaped = Arrays.copyOf(this.escaped, capacity);
+        }
+
+        starts[size] = start;
+        ends[size] = end;
+        this.escaped[size] = escaped;
+        size++;
+    }
+
+    private boolean isInsideQuotes(int end) {
+        if (size == 0) return false;
+        int last = size - 1;
+        int start = starts[last];
+        if (start == 0 || ends[last] != end) return false;
+
+        char quote = line.charAt(start - 1);
+        return quote == '"' || quote == '\'';
+    }
+
+    @NotNull
+    public String getLine() {
+        return line;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * @return the character offset of the token in the original line
+     */
+    public int start(int index) {
+        checkIndex(index);
+        return starts[index];
+    }
+
+    public int end(int index) {
+        checkIndex(index);
+        return ends[index];
+    }
+
+    @NotNull
+    public String get(int index) {
+        checkIndex(index);
+        if (tokens != null && tokens[index] != null) return tokens[index];
+
+        String token = escaped[index] ? unescape(starts[index], ends[index]) : line.substring(starts[index], ends[index]);
+        if (tokens == null) tokens = new String[size];
+        tokens[index] = token;
+        return token;
+    }
+
+    /**
+     * Returns the tokens starting at the given index joined by spaces.
+     * If none of them were quoted or escaped, this is a substring of the original line.
+     */
+    @NotNull
+    public String rest(int index) {
+        return slice(index, size);
+    }
+
+    /**
+     * Returns the tokens in the given range (end exclusive) joined by spaces.
+     * If none of them were quoted or escaped, this is a substring of the original line.
+     */
+    @NotNull
+    public String slice(int from, int to) {
+        checkIndex(from);
+        checkIndex(to - 1);
+        if (!transformed) return line.substring(starts[from], ends[to - 1]);
+
+        StringBuilder builder = new StringBuilder(ends[to - 1] - starts[from]);
+        for (int i = from; i < to; i++) {
+            if (i != from) builder.append(' ');
+            builder.append(get(i));
+        }
+        return builder.toString();
+    }
+
+    /**
+     * @return whether the token at the given index equals the given string (case-sensitive), without creating it
+     */
+    public boolean matches(int index, @NotNull String string) {
+        checkIndex(index);
+        if (escaped[index]) return get(index).equals(string);
+
+        int length = ends[index] - starts[index];
+        return length == string.length() && line.regionMatches(starts[index], string, 0, length);
+    }
+
+    public char charAt(int index, int offset) {
+        checkIndex(index);
+        return line.charAt(starts[index] + offset);
+    }
+
+    public int length(int index) {
+        checkIndex(index);
+        return ends[index] - starts[index];
+    }
+
+    public boolean endsWithSpace() {
+        return !line.isEmpty() && line.charAt(line.length() - 1) == ' ';
+    }
+
+    @NotNull
+    public String[] toArray(int from) {
+        String[] array = new String[Math.max(0, size - from)];
+        for (int i = from; i < size; i++) array[i - from] = get(i);
+        return array;
+    }
+
+    private String unescape(int start, int end) {
+        StringBuilder builder = new StringBuilder(end - start);
+        for (int i = start; i < end; i++) {
+            char c = line.charAt(i);
+            if (c == ESCAPE && i + 1 < end && isEscapable(line.charAt(i + 1))) c = line.charAt(++i);
+            builder.append(c);
+        }
+        return builder.toString();
+    }
+
+    private void checkIndex(int index) {
+        if (index < 0 || index >= size) throw new IndexOutOfBoundsException("Token index " + index + " out of bounds for " + size + " tokens");
+    }
+
+    @Override
+    public String toString() {
+        return line;
+    }
+
+}
@@ -0,0 +1,105 @@
+package me.vaperion.blade.util;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.function.Predicate;
+
+/**
+ * A sorted, case-insensitive index of names (such as online players), which is safe to query from any thread.
+ * <p>
+ * Prefix queries are a range scan over the sorted names that stops at the first name which doesn't match.
+ */
+public final class NameIndex<T> {
+
+    private final ConcurrentSkipListMap<String, Entry<T>> entries = new ConcurrentSkipListMap<>();
+
+    public void add(@NotNull String name, @NotNull T value) {
+        entries.put(fold(name), new Entry<>(name, value));
+    }
+
+    /**
+     * Removes the name, if it's still mapped to the given value.
+     */
+    public void remove(@NotNull String name, @NotNull T value) {
+        entries.computeIfPresent(fold(name), ($, entry) -> entry.value == value ? null : entry);
+    }
+
+    public void clear() {
+        entries.clear();
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    /**
+     * @return the value with exactly the given name (ignoring case)
+     */
+    @Nullable
+    public T get(@NotNull String name) {
+        Entry<T> entry = entries.get(fold(name));
+        return entry == null ? null : entry.value;
+    }
+
+    /**
+     * @return the value with exactly the given name, or the one with the shortest name starting with it (ignoring case)
+     */
+    @Nullable
+    public T match(@NotNull String name) {
+        String prefix = fold(name);
+        Entry<T> best = null;
+        int bestLength = Integer.MAX_VALUE;
+
+        for (Map.Entry<String, Entry<T>> entry : entries.tailMap(prefix, true).entrySet()) {
+            String key = entry.getKey();
+            if (!key.startsWith(prefix)) break;
+
+            if (key.length() < bestLength) {
+                best = entry.getValue();
+                bestLength = key.length();
+                if (bestLength == prefix.length()) break; // exact match
+            }
+        }
+
+        return best == null ? null : best.value;
+    }
+
+    /**
+     * @return the names starting with the given prefix (ignoring case) in alphabetical order, whose values match the filter
+     */
+    @NotNull
+    public List<String> suggest(@NotNull String prefix, @Nullable Predicate<T> filter) {
+        String folded = fold(prefix);
+        List<String> names = new ArrayList<>();
+
+        for (Map.Entry<String, Entry<T>> entry : entries.tailMap(folded, true).entrySet()) {
+            if (!entry.getKey().startsWith(folded)) break;
+
+            Entry<T> value = entry.getValue();
+            if (filter == null || filter.test(value.value)) names.add(value.name);
+        }
+
+        return names;
+    }
+
+    private static String fold(String name) {
+        return name.toLowerCase(Locale.ROOT);
+    }
+
+    private static final class Entry<T> {
+        private final String name;
+        private final T value;
+
+        private Entry(String name, T value) {
+            this.name = name;
+            this.value = value;
+        }
+    }
+
+}
@@ -8,5 +8,31 @@ import java.util.function.BiPredicate;
 
 @FunctionalInterface
 public interface PermissionPredicate extends BiPredicate<Context, Command> {
+
+    /**
+     * Wraps a predicate whose result only depends on the sender, so it can be cached like a regular permission.
+     */
+    @NotNull
+    static PermissionPredicate cacheable(@NotNull PermissionPredicate predicate) {
+        return new PermissionPredicate() {
+            @Override
+            public boolean test(@NotNull Context context, @NotNull Command command) {
+                return predicate.test(context, command);
+            }
+
+            @Override
+            public boolean isCacheable() {
+                return true;
+            }
+        };
+    }
+
     boolean test(@NotNull Context context, @NotNull Command command);
-}
\ No newline at end of file
+
+    /**
+     * @return whether the result only depends on the sender, see {@link me.vaperion.blade.service.PermissionCache}
+     */
+    default boolean isCacheable() {
+        return false;
+    }
+}
@@ -0,0 +1,174 @@
+package me.vaperion.blade.util;
+
+import me.vaperion.blade.exception.BladeExitMessage;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayDeque;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+/**
+ * Runs {@link me.vaperion.blade.annotation.command.Async} commands of the same sender one at a time, in the order they
+ * were sent, while commands of different senders still run in parallel on the underlying executor.
+ * <p>
+ * Every sender with a running command has a queue of the commands waiting behind it, which is removed once it runs empty.
+ * Only one task per sender is handed to the underlying executor at a time, so a sender can't occupy more than one thread.
+ */
+public final class SerialExecutor {
+
+    private final Consumer<Runnable> executor;
+    private final int maximumQueued;
+    private final OverflowPolicy overflowPolicy;
+
+    // A sender is mapped while one of its commands runs, to the commands waiting behind it
+    private final Map<Object, ArrayDeque<Runnable>> queues = new ConcurrentHashMap<>();
+    private final LongAdder overflowed = new LongAdder(), failed = new LongAdder();
+
+    /**
+     * @param executor       the executor commands are run on
+     * @param maximumQueued  the amount of commands a sender may have waiting behind its running command
+     * @param overflowPolicy what happens to commands sent while the queue of the sender is full
+     */
+    public SerialExecutor(@NotNull Consumer<Runnable> executor, int maximumQueued, @NotNull OverflowPolicy overflowPolicy) {
+        Preconditions.checkState(maximumQueued >= 0, "Maximum queued commands cannot be negative.");
+        Preconditions.checkState(maximumQueued > 0 || overflowPolicy != OverflowPolicy.COALESCE,
+              "Coalescing needs at least one queued command to replace.");
+
+        this.executor = executor;
+        this.maximumQueued = maximumQueued;
+        this.overflowPolicy = overflowPolicy;
+    }
+
+    /**
+     * Runs the task after the previously submitted tasks of the same key completed.
+     *
+     * @throws BladeExitMessage if the queue of the key is full and the overflow policy is {@link OverflowPolicy#REJECT}
+     */
+    public void execute(@NotNull Object key, @NotNull Runnable task) throws BladeExitMessage {
+        execute(key, (runnable, onDropped) -> executor.accept(runnable), task);
+    }
+
+    /**
+     * Runs the task on the given executor, after the previously submitted tasks of the same key completed.
+     *
+     * @throws BladeExitMessage if the queue of the key is full and the overflow policy is {@link OverflowPolicy#REJECT}
+     */
+    public void execute(@NotNull Object key, @NotNull Handoff executor, @NotNull Runnable task) throws BladeExitMessage {
+        Runnable submit = () -> executor.submit(() -> run(key, task), () -> advance(key));
+        boolean[] idle = {false};
+
+        queues.compute(key, ($, queue) -> {
+            if (queue == null) {
+                idle[0] = true;
+                return new ArrayDeque<>(Math.min(maximumQueued, 4));
+            }
+
+            if (queue.size() < maximumQueued) {
+                queue.add(submit);
+                return queue;
+            }
+
+            overflowed.increment();
+            switch (overflowPolicy) {
+                case REJECT:
+                    throw new BladeExitMessage("Please wait for your previous commands to finish.");
+                case COALESCE:
+                    if (queue.pollLast() != null) queue.add(submit);
+                    break;
+                case DROP:
+                default:
+                    break;
+            }
+            return queue;
+        });
+
+        if (!idle[0]) return;
+
+        try {
+            submit.run();
+        } catch (RuntimeException ex) {
+            // Nothing runs for the key, so the tasks queued in the meantime are handed over instead
+            advance(key);
+            throw ex;
+        }
+    }
+
+    private void run(Object key, Runnable task) {
+        try {
+            task.run();
+        } finally {
+            advance(key);
+        }
+    }
+
+    /**
+     * Hands the next waiting task of the key to its executor, or removes the key if none is waiting.
+     * A task its executor refuses (e.g. after a shutdown) or drops is skipped, so the key is never left without a running task.
+     */
+    private void advance(Object key) {
+        while (true) {
+            // The queue holds the submissions of the waiting tasks to their executors
+            Runnable[] next = {null};
+            queues.computeIfPresent(key, ($, queue) -> (next[0] = queue.poll()) == null ? null : queue);
+            if (next[0] == null) return;
+
+            try {
+                next[0].run();
+                return;
+            } catch (RuntimeException ex) {
+                failed.increment();
+            }
+        }
+    }
+
+    /**
+     * @return the amount of senders with a running command
+     */
+    public int getActiveSenders() {
+        return queues.size();
+    }
+
+    /**
+     * @return the amount of commands that were sent while the queue of their sender was full
+     */
+    public long getOverflowed() {
+        return overflowed.sum();
+    }
+
+    /**
+     * @return the amount of waiting commands that were skipped because their executor refused them
+     */
+    public long getFailed() {
+        return failed.sum();
+    }
+
+    /**
+     * Hands a task to an executor, which may drop it without running it (e.g. an {@link AsyncPool} with a full queue)
+     * as long as it runs the callback instead, so the tasks waiting behind it move on.
+     */
+    @FunctionalInterface
+    public interface Handoff {
+        void submit(@NotNull Runnable task, @NotNull Runnable onDropped) throws BladeExitMessage;
+    }
+
+    public enum OverflowPolicy {
+        /**
+         * The new command is silently dropped.
+         */
+        DROP,
+
+        /**
+         * The new command is not run, and the sender is told to wait for their previous commands.
+         */
+        REJECT,
+
+        /**
+         * The new command replaces the last waiting one, so a burst of commands runs its first and last command.
+         * Requires a maximum of at least one queued command.
+         */
+        COALESCE
+    }
+
+}
@@ -0,0 +1,40 @@
+package me.vaperion.blade.paper;
+
+import me.vaperion.blade.Blade;
+import me.vaperion.blade.bukkit.BladeBukkitPlatform;
+import me.vaperion.blade.container.ContainerCreator;
+import me.vaperion.blade.paper.platform.PaperTabCompleter;
+import me.vaperion.blade.platform.BladeConfiguration;
+import me.vaperion.blade.platform.BladePlatform;
+import org.bukkit.plugin.java.JavaPlugin;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * The Bukkit platform, completing commands off the main thread through Paper's AsyncTabCompleteEvent.
+ */
+public final class BladePaperPlatform implements BladePlatform {
+
+    private final JavaPlugin plugin;
+    private final BladeBukkitPlatform bukkitPlatform;
+
+    public BladePaperPlatform(@NotNull JavaPlugin plugin) {
+        this.plugin = plugin;
+        this.bukkitPlatform = new BladeBukkitPlatform(plugin);
+    }
+
+    @Override
+    public @NotNull Object getPluginInstance() {
+        return plugin;
+    }
+
+    @Override
+    public @NotNull ContainerCreator<?> getContainerCreator() {
+        return bukkitPlatform.getContainerCreator();
+    }
+
+    @Override
+    public void configureBlade(Blade.@NotNull Builder builder, @NotNull BladeConfiguration configuration) {
+        bukkitPlatform.configureBlade(builder, configuration);
+        configuration.setTabCompleter(new PaperTabCompleter(plugin));
+    }
+}
@@ -0,0 +1,67 @@
+package me.vaperion.blade.paper.platform;
+
+import com.destroystokyo.paper.event.server.AsyncTabCompleteEvent;
+import me.vaperion.blade.Blade;
+import me.vaperion.blade.bukkit.context.BukkitSender;
+import me.vaperion.blade.exception.BladeExitMessage;
+import me.vaperion.blade.platform.TabCompleter;
+import org.bukkit.Bukkit;
+import org.bukkit.command.CommandSender;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.plugin.java.JavaPlugin;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.List;
+
+/**
+ * Completes commands from Paper's async tab completion thread, if the provider of the current argument is thread safe.
+ * <p>
+ * Otherwise the event is left unhandled, so the server falls back to the synchronous completion of the command container.
+ */
+public class PaperTabCompleter implements TabCompleter, Listener {
+
+    private final JavaPlugin plugin;
+    private Blade blade;
+
+    public PaperTabCompleter(@NotNull JavaPlugin plugin) {
+        this.plugin = plugin;
+    }
+
+    @Override
+    public void init(@NotNull Blade blade) {
+        this.blade = blade;
+        Bukkit.getPluginManager().registerEvents(this, plugin);
+    }
+
+    @Override
+    public boolean isDefault() {
+        return true; // the containers still complete on the main thread when the async completion is skipped
+    }
+
+    @EventHandler(priority = EventPriority.LOW, ignoreCancelled = true)
+    public void onAsyncTabComplete(AsyncTabCompleteEvent event) {
+        if (!event.isCommand() || event.isHandled()) return;
+
+        String commandLine = event.getBuffer();
+        if (commandLine.startsWith("/")) commandLine = commandLine.substring(1);
+
+        if (!blade.getCompleter().canSuggestAsync(commandLine)) return;
+
+        CommandSender sender = event.getSender();
+        try {
+            List<String> suggestions = blade.getCompleter().suggest(commandLine, () -> new BukkitSender(sender));
+            if (suggestions == null) return; // if command was not found
+
+            event.setCompletions(suggestions);
+            event.setHandled(true);
+        } catch (BladeExitMessage ex) {
+            sender.sendMessage(ex.getMessage());
+            event.setHandled(true);
+        } catch (Exception ex) {
+            System.err.println("An exception was thrown while attempting to tab complete '" + commandLine + "' for " + sender.getName());
+            ex.printStackTrace();
+        }
+    }
+}
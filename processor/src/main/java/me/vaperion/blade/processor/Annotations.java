@@ -0,0 +1,55 @@
+package me.vaperion.blade.processor;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.Types;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.util.List;
+
+final class Annotations {
+
+    static final String COMMAND = "me.vaperion.blade.annotation.command.Command";
+    static final String SENDER = "me.vaperion.blade.annotation.argument.Sender";
+
+    private Annotations() {
+    }
+
+    @Nullable
+    static AnnotationMirror find(@NotNull Element element, @NotNull String type) {
+        for (AnnotationMirror mirror : element.getAnnotationMirrors()) {
+            if (((TypeElement) mirror.getAnnotationType().asElement()).getQualifiedName().contentEquals(type)) return mirror;
+        }
+
+        return null;
+    }
+
+    /**
+     * Whether the annotation is visible to reflection at runtime, only those are carried over into generated dispatchers.
+     */
+    static boolean isRuntimeVisible(@NotNull AnnotationMirror mirror) {
+        Retention retention = mirror.getAnnotationType().asElement().getAnnotation(Retention.class);
+        return retention != null && retention.value() == RetentionPolicy.RUNTIME;
+    }
+
+    /**
+     * The compile time equivalent of {@code ClassUtil#getGenericOrRawType}: the first type argument of a parameterized type, or the type itself.
+     */
+    @NotNull
+    static TypeMirror valueType(@NotNull Types types, @NotNull TypeMirror type) {
+        if (type.getKind() != TypeKind.DECLARED) return type;
+
+        List<? extends TypeMirror> arguments = ((DeclaredType) type).getTypeArguments();
+        if (arguments.isEmpty() || arguments.get(0).getKind() != TypeKind.DECLARED) return type;
+
+        return arguments.get(0);
+    }
+
+}
@@ -0,0 +1,138 @@
+package me.vaperion.blade.processor;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.ProcessingEnvironment;
+import javax.annotation.processing.RoundEnvironment;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.NestingKind;
+import javax.lang.model.element.TypeElement;
+import javax.tools.Diagnostic;
+import javax.tools.JavaFileObject;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Generates a {@code <Class>_BladeDispatcher} for every class declaring {@code @Command} methods,
+ * which {@code Blade#register} picks up instead of scanning the class reflectively.
+ * <p>
+ * Like the reflective registrar, public (including inherited) methods are registered. Classes the generated code
+ * can't access, such as private nested classes, are skipped and keep being registered reflectively.
+ */
+public final class CommandProcessor extends AbstractProcessor {
+
+    private final Set<String> generated = new HashSet<>();
+    private final Set<String> deferred = new LinkedHashSet<>();
+
+    private ProviderChecker providerChecker;
+
+    @Override
+    public synchronized void init(ProcessingEnvironment processingEnv) {
+        super.init(processingEnv);
+        this.providerChecker = new ProviderChecker(processingEnv);
+    }
+
+    @Override
+    public Set<String> getSupportedAnnotationTypes() {
+        return Collections.singleton(Annotations.COMMAND);
+    }
+
+    @Override
+    public Set<String> getSupportedOptions() {
+        return new HashSet<>(Arrays.asList(ProviderChecker.PROVIDED_TYPES_OPTION, ProviderChecker.MISSING_PROVIDER_OPTION));
+    }
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        TypeElement command = processingEnv.getElementUtils().getTypeElement(Annotations.COMMAND);
+        if (command == null) return false;
+
+        Set<TypeElement> types = new LinkedHashSet<>();
+        for (String name : deferred) {
+            TypeElement type = processingEnv.getElementUtils().getTypeElement(name);
+            if (type != null) types.add(type);
+        }
+        deferred.clear();
+
+        for (Element element : roundEnv.getElementsAnnotatedWith(command)) {
+            if (element.getKind() != ElementKind.METHOD) continue;
+
+            if (!element.getModifiers().contains(Modifier.PUBLIC)) {
+                processingEnv.getMessager().printMessage(Diagnostic.Kind.WARNING, "Commands must be public to be registered", element);
+                continue;
+            }
+
+            types.add((TypeElement) element.getEnclosingElement());
+        }
+
+        for (TypeElement type : types) {
+            if (generated.contains(type.getQualifiedName().toString())) continue;
+            process(type, roundEnv.processingOver());
+        }
+
+        return false;
+    }
+
+    private void process(TypeElement type, boolean lastRound) {
+        if (type.getNestingKind() == NestingKind.LOCAL || type.getNestingKind() == NestingKind.ANONYMOUS) return;
+
+        List<ExecutableElement> methods = new ArrayList<>();
+        for (Element member : processingEnv.getElementUtils().getAllMembers(type)) {
+            if (member.getKind() != ElementKind.METHOD || !member.getModifiers().contains(Modifier.PUBLIC)) continue;
+            if (Annotations.find(member, Annotations.COMMAND) == null) continue;
+
+            methods.add((ExecutableElement) member);
+        }
+
+        if (methods.isEmpty()) return;
+
+        String source;
+        try {
+            source = new DispatcherWriter(processingEnv, type).write(methods);
+        } catch (DispatcherWriter.UnsupportedException ex) {
+            // Types generated by other processors may only resolve in a later round
+            if (ex.isUnresolved() && !lastRound) {
+                deferred.add(type.getQualifiedName().toString());
+                return;
+            }
+
+            methods.forEach(method -> providerChecker.check(method, type));
+            note(type, "no dispatcher was generated (" + ex.getMessage() + "), its commands will be registered reflectively");
+            return;
+        }
+
+        methods.forEach(method -> providerChecker.check(method, type));
+
+        String name = DispatcherWriter.dispatcherName(processingEnv.getElementUtils(), type);
+        try {
+            JavaFileObject file = processingEnv.getFiler().createSourceFile(name, type);
+            try (Writer writer = file.openWriter()) {
+                writer.write(source);
+            }
+
+            generated.add(type.getQualifiedName().toString());
+        } catch (IOException ex) {
+            processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, "Failed to write " + name + ": " + ex.getMessage(), type);
+        }
+    }
+
+    private void note(Element element, String message) {
+        processingEnv.getMessager().printMessage(Diagnostic.Kind.NOTE, message, element);
+    }
+
+}
@@ -0,0 +1,286 @@
+package me.vaperion.blade.processor;
+
+import org.jetbrains.annotations.NotNull;
+
+import javax.annotation.processing.ProcessingEnvironment;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.AnnotationValue;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.PackageElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.ArrayType;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.Elements;
+import javax.lang.model.util.Types;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Writes the source of the {@code <Class>_BladeDispatcher} for one class.
+ * <p>
+ * Annotations are re-created as anonymous implementations of their interfaces (identical ones are shared), with
+ * {@code equals} and {@code hashCode} following the {@link java.lang.annotation.Annotation} contract,
+ * and every command is invoked through a lambda calling the method directly.
+ */
+final class DispatcherWriter {
+
+    static final String SUFFIX = "_BladeDispatcher";
+
+    private static final String DEFINITION = "me.vaperion.blade.command.CommandDefinition";
+    private static final String PARAMETER_DEFINITION = DEFINITION + ".ParameterDefinition";
+    private static final String DISPATCHER = "me.vaperion.blade.command.CommandDispatcher";
+    private static final String ANNOTATION_SET = "me.vaperion.blade.util.AnnotationSet";
+
+    private final Types types;
+    private final Elements elements;
+    private final TypeElement owner;
+    private final PackageElement ownerPackage;
+
+    private final Map<String, String> annotationFields = new LinkedHashMap<>();
+    private final Map<String, String> annotationTypes = new LinkedHashMap<>();
+
+    DispatcherWriter(@NotNull ProcessingEnvironment environment, @NotNull TypeElement owner) {
+        this.types = environment.getTypeUtils();
+        this.elements = environment.getElementUtils();
+        this.owner = owner;
+        this.ownerPackage = elements.getPackageOf(owner);
+    }
+
+    @NotNull
+    static String dispatcherName(@NotNull Elements elements, @NotNull TypeElement type) {
+        String binaryName = elements.getBinaryName(type).toString();
+        String packageName = elements.getPackageOf(type).getQualifiedName().toString();
+        String simpleName = packageName.isEmpty() ? binaryName : binaryName.substring(packageName.length() + 1);
+
+        return (packageName.isEmpty() ? "" : packageName + ".") + simpleName.replace('$', '_') + SUFFIX;
+    }
+
+    /**
+     * @throws UnsupportedException if the class references a type or annotation the generated class can't access
+     */
+    @NotNull
+    String write(@NotNull List<ExecutableElement> methods) {
+        String ownerName = sourceName(owner.asType());
+        String qualifiedName = dispatcherName(elements, owner);
+        String simpleName = qualifiedName.substring(qualifiedName.lastIndexOf('.') + 1);
+
+        List<String> commands = new ArrayList<>(methods.size());
+        for (int i = 0; i < methods.size(); i++) {
+            commands.add(command(i, methods.get(i), ownerName));
+        }
+
+        StringBuilder source = new StringBuilder();
+        if (!ownerPackage.isUnnamed()) source.append("package ").append(ownerPackage.getQualifiedName()).append(";\n\n");
+
+        source.append("// Generated by the Blade annotation processor from ").append(owner.getQualifiedName()).append(", do not edit.\n");
+        source.append("@SuppressWarnings({\"unchecked\", \"rawtypes\", \"deprecation\"})\n");
+        source.append("public final class ").append(simpleName).append(" implements ").append(DISPATCHER).append(" {\n\n");
+
+        for (Map.Entry<String, String> entry : annotationFields.entrySet()) {
+            source.append("    private static final ").append(annotationTypes.get(entry.getValue())).append(' ').append(entry.getValue())
+                  .append(" = ").append(entry.getKey()).append(";\n\n");
+        }
+
+        source.append("    private static final java.util.List<").append(DEFINITION).append("> COMMANDS = java.util.Collections.unmodifiableList(java.util.Arrays.asList(\n");
+        for (int i = 0; i < commands.size(); i++) {
+            source.append("          command").append(i).append("()").append(i + 1 < commands.size() ? ",\n" : "\n");
+        }
+        source.append("    ));\n\n");
+
+        source.append("    @Override\n");
+        source.append("    public java.lang.Class<?> getType() {\n");
+        source.append("        return ").append(ownerName).append(".class;\n");
+        source.append("    }\n\n");
+
+        source.append("    @Override\n");
+        source.append("    public java.util.List<").append(DEFINITION).append("> getCommands() {\n");
+        source.append("        return COMMANDS;\n");
+        source.append("    }\n");
+
+        for (String command : commands) source.append('\n').append(command);
+
+        return source.append("\n}\n").toString();
+    }
+
+    private String command(int index, ExecutableElement method, String ownerName) {
+        List<? extends VariableElement> parameters = method.getParameters();
+        boolean isStatic = method.getModifiers().contains(Modifier.STATIC);
+
+        List<String> parameterTypes = new ArrayList<>(parameters.size());
+        List<String> definitions = new ArrayList<>(parameters.size());
+        List<String> arguments = new ArrayList<>(parameters.size());
+
+        for (int i = 0; i < parameters.size(); i++) {
+            VariableElement parameter = parameters.get(i);
+            TypeMirror type = parameter.asType();
+            String typeName = sourceName(type);
+
+            parameterTypes.add(typeName + ".class");
+            definitions.add("new " + PARAMETER_DEFINITION + "(" + elements.getConstantExpression(parameter.getSimpleName().toString()) + ", "
+                  + typeName + ".class, " + sourceName(Annotations.valueType(types, type)) + ".class, " + annotationSet(parameter) + ")");
+
+            if (type.getKind().isPrimitive()) arguments.add("(" + types.boxedClass(types.getPrimitiveType(type.getKind())).getQualifiedName() + ") arguments[" + i + "]");
+            else if (typeName.equals("java.lang.Object")) arguments.add("arguments[" + i + "]");
+            else arguments.add("(" + typeName + ") arguments[" + i + "]");
+        }
+
+        String target = isStatic ? ownerName : "((" + ownerName + ") instance)";
+
+        StringBuilder source = new StringBuilder();
+        source.append("    private static ").append(DEFINITION).append(" command").append(index).append("() {\n");
+        source.append("        return new ").append(DEFINITION).append("(\n");
+        source.append("              ").append(ownerName).append(".class, ").append(elements.getConstantExpression(method.getSimpleName().toString()))
+              .append(", new java.lang.Class<?>[] {").append(String.join(", ", parameterTypes)).append("}, ").append(isStatic).append(",\n");
+        source.append("              ").append(annotationSet(method)).append(",\n");
+
+        if (definitions.isEmpty()) {
+            source.append("              java.util.Collections.emptyList(),\n");
+        } else {
+            source.append("              java.util.Arrays.asList(\n");
+            for (int i = 0; i < definitions.size(); i++) {
+                source.append("                    ").append(definitions.get(i)).append(i + 1 < definitions.size() ? ",\n" : "\n");
+            }
+            source.append("              ),\n");
+        }
+
+        source.append("              (instance, arguments) -> ").append(target).append('.').append(method.getSimpleName())
+              .append('(').append(String.join(", ", arguments)).append("));\n");
+        return source.append("    }\n").toString();
+    }
+
+    private String annotationSet(Element element) {
+        List<String> fields = new ArrayList<>();
+        for (AnnotationMirror mirror : element.getAnnotationMirrors()) {
+            if (!Annotations.isRuntimeVisible(mirror)) continue;
+
+            String annotation = annotation(mirror, "    ");
+            String field = annotationFields.get(annotation);
+            if (field == null) {
+                field = "ANNOTATION_" + annotationFields.size();
+                annotationFields.put(annotation, field);
+                annotationTypes.put(field, sourceName(mirror.getAnnotationType()));
+            }
+
+            fields.add(field);
+        }
+
+        return "new " + ANNOTATION_SET + "(" + String.join(", ", fields) + ")";
+    }
+
+    private String annotation(AnnotationMirror mirror, String indent) {
+        String type = sourceName(mirror.getAnnotationType());
+
+        StringBuilder source = new StringBuilder();
+        source.append("new ").append(type).append("() {\n");
+        source.append(indent).append("    @Override\n");
+        source.append(indent).append("    public java.lang.Class<? extends java.lang.annotation.Annotation> annotationType() {\n");
+        source.append(indent).append("        return ").append(type).append(".class;\n");
+        source.append(indent).append("    }\n\n");
+        source.append(indent).append("    @Override\n");
+        source.append(indent).append("    public java.lang.String toString() {\n");
+        source.append(indent).append("        return ").append(elements.getConstantExpression("@" + type)).append(";\n");
+        source.append(indent).append("    }\n");
+
+        List<String> equals = new ArrayList<>();
+        List<String> hashCodes = new ArrayList<>();
+
+        for (Map.Entry<? extends ExecutableElement, ? extends AnnotationValue> entry : elements.getElementValuesWithDefaults(mirror).entrySet()) {
+            ExecutableElement member = entry.getKey();
+            String name = member.getSimpleName().toString();
+            String helper = member.getReturnType().getKind() == TypeKind.ARRAY ? "java.util.Arrays" : "java.util.Objects";
+
+            equals.add(helper + ".equals(" + name + "(), that." + name + "())");
+            hashCodes.add("(" + 127 * name.hashCode() + " ^ " + helper + ".hashCode(" + name + "()))");
+
+            source.append('\n');
+            source.append(indent).append("    @Override\n");
+            source.append(indent).append("    public ").append(member.getReturnType()).append(' ').append(name).append("() {\n");
+            source.append(indent).append("        return ").append(value(entry.getValue(), member.getReturnType(), indent + "        ")).append(";\n");
+            source.append(indent).append("    }\n");
+        }
+
+        // As specified by java.lang.annotation.Annotation, so instances compare equal to the ones created by the JVM
+        source.append('\n');
+        source.append(indent).append("    @Override\n");
+        source.append(indent).append("    public boolean equals(java.lang.Object other) {\n");
+        source.append(indent).append("        if (this == other) return true;\n");
+        source.append(indent).append("        if (!(other instanceof ").append(type).append(")) return false;\n");
+        if (!equals.isEmpty()) {
+            source.append(indent).append("        ").append(type).append(" that = (").append(type).append(") other;\n");
+            source.append(indent).append("        return ").append(String.join("\n" + indent + "              && ", equals)).append(";\n");
+        } else {
+            source.append(indent).append("        return true;\n");
+        }
+        source.append(indent).append("    }\n\n");
+        source.append(indent).append("    @Override\n");
+        source.append(indent).append("    public int hashCode() {\n");
+        source.append(indent).append("        return ").append(hashCodes.isEmpty() ? "0" : String.join("\n" + indent + "              + ", hashCodes)).append(";\n");
+        source.append(indent).append("    }\n");
+
+        return source.append(indent).append('}').toString();
+    }
+
+    private String value(AnnotationValue value, TypeMirror type, String indent) {
+        Object object = value.getValue();
+
+        if (object instanceof List) {
+            TypeMirror component = ((ArrayType) type).getComponentType();
+            List<String> values = new ArrayList<>();
+            for (Object element : (List<?>) object) values.add(value((AnnotationValue) element, component, indent));
+
+            return "new " + sourceName(component) + "[] {" + String.join(", ", values) + "}";
+        }
+
+        if (object instanceof TypeMirror) return sourceName((TypeMirror) object) + ".class";
+        if (object instanceof AnnotationMirror) return annotation((AnnotationMirror) object, indent);
+        if (object instanceof VariableElement) {
+            VariableElement constant = (VariableElement) object;
+            return sourceName(constant.getEnclosingElement().asType()) + "." + constant.getSimpleName();
+        }
+
+        return elements.getConstantExpression(object);
+    }
+
+    /**
+     * The erased source name of the type, checking that the generated class can reference it.
+     */
+    private String sourceName(TypeMirror type) {
+        TypeMirror erased = types.erasure(type);
+
+        if (erased.getKind() == TypeKind.ERROR) throw new UnsupportedException("type " + type + " could not be resolved", true);
+        if (erased.getKind() == TypeKind.ARRAY) sourceName(((ArrayType) erased).getComponentType());
+        if (erased.getKind() == TypeKind.DECLARED) {
+            for (Element element = ((DeclaredType) erased).asElement(); element.getKind() != ElementKind.PACKAGE; element = element.getEnclosingElement()) {
+                boolean samePackage = elements.getPackageOf(element).equals(ownerPackage);
+                if (element.getModifiers().contains(Modifier.PRIVATE) || (!samePackage && !element.getModifiers().contains(Modifier.PUBLIC)))
+                    throw new UnsupportedException("type " + type + " is not accessible from package " + ownerPackage.getQualifiedName(), false);
+            }
+        }
+
+        return erased.toString();
+    }
+
+    static final class UnsupportedException extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+
+        private final boolean unresolved;
+
+        UnsupportedException(String message, boolean unresolved) {
+            super(message);
+            this.unresolved = unresolved;
+        }
+
+        boolean isUnresolved() {
+            return unresolved;
+        }
+    }
+
+}
@@ -0,0 +1,114 @@
+package me.vaperion.blade.processor;
+
+import org.jetbrains.annotations.NotNull;
+
+import javax.annotation.processing.Messager;
+import javax.annotation.processing.ProcessingEnvironment;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.Types;
+import javax.tools.Diagnostic;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Reports command parameters whose type has no argument provider, mirroring the hierarchy walk of the runtime resolver.
+ * <p>
+ * Only the built-in and platform bindings are known at compile time, types bound with {@code Blade.Builder#bind}
+ * have to be listed in the {@code blade.providedTypes} option (comma separated, fully qualified).
+ */
+final class ProviderChecker {
+
+    static final String PROVIDED_TYPES_OPTION = "blade.providedTypes";
+    static final String MISSING_PROVIDER_OPTION = "blade.missingProvider";
+
+    private static final List<String> BUILT_IN_TYPES = Arrays.asList(
+          "boolean", "int", "long", "double", "float",
+          "java.lang.String", "java.util.UUID", "java.lang.Enum",
+          "org.bukkit.entity.Player", "org.bukkit.OfflinePlayer",
+          "com.velocitypowered.api.proxy.Player"
+    );
+
+    private static final Set<String> CONTEXT_TYPES = new HashSet<>(Arrays.asList(
+          "me.vaperion.blade.context.Context", "me.vaperion.blade.context.WrappedSender"
+    ));
+
+    private final Types types;
+    private final Messager messager;
+    private final Set<String> providedTypes = new HashSet<>(BUILT_IN_TYPES);
+    private final Diagnostic.Kind kind;
+
+    ProviderChecker(@NotNull ProcessingEnvironment environment) {
+        this.types = environment.getTypeUtils();
+        this.messager = environment.getMessager();
+
+        String provided = environment.getOptions().get(PROVIDED_TYPES_OPTION);
+        if (provided != null) {
+            for (String type : provided.split(",")) {
+                if (!type.trim().isEmpty()) providedTypes.add(type.trim());
+            }
+        }
+
+        String mode = environment.getOptions().getOrDefault(MISSING_PROVIDER_OPTION, "error").toLowerCase(Locale.ROOT);
+        this.kind = mode.equals("ignore") ? null : mode.equals("warning") ? Diagnostic.Kind.WARNING : Diagnostic.Kind.ERROR;
+    }
+
+    void check(@NotNull ExecutableElement method, @NotNull TypeElement owner) {
+        if (kind == null) return;
+
+        List<? extends VariableElement> parameters = method.getParameters();
+        if (parameters.size() == 1 && CONTEXT_TYPES.contains(types.erasure(parameters.get(0).asType()).toString())) return;
+
+        for (int i = 0; i < parameters.size(); i++) {
+            VariableElement parameter = parameters.get(i);
+            if (i == 0 && Annotations.find(parameter, Annotations.SENDER) != null) continue;
+
+            TypeMirror type = Annotations.valueType(types, parameter.asType());
+            if (type.getKind() == TypeKind.ERROR || isProvided(type)) continue;
+
+            String message = "No argument provider is bound for type " + type + " (parameter '" + parameter.getSimpleName() + "' of command "
+                  + owner.getSimpleName() + "#" + method.getSimpleName() + ")";
+            if (type.getKind() == TypeKind.DECLARED) {
+                try {
+                    message += ", use the primitive " + types.unboxedType(type) + " instead";
+                } catch (IllegalArgumentException ex) {
+                    message += ", bind one with Blade.Builder#bind and list it in -A" + PROVIDED_TYPES_OPTION;
+                }
+            }
+
+            Element target = method.getEnclosingElement().equals(owner) ? parameter : owner;
+            messager.printMessage(kind, message, target);
+        }
+    }
+
+    private boolean isProvided(TypeMirror type) {
+        if (type.getKind().isPrimitive()) return providedTypes.contains(type.toString());
+        if (type.getKind() != TypeKind.DECLARED) return providedTypes.contains(types.erasure(type).toString());
+
+        Deque<TypeMirror> queue = new ArrayDeque<>();
+        Set<String> visited = new HashSet<>();
+        queue.add(type);
+
+        while (!queue.isEmpty()) {
+            TypeMirror current = queue.poll();
+            String name = ((TypeElement) ((DeclaredType) types.erasure(current)).asElement()).getQualifiedName().toString();
+            if (!visited.add(name)) continue;
+            if (providedTypes.contains(name)) return true;
+
+            queue.addAll(types.directSupertypes(current));
+        }
+
+        return false;
+    }
+
+}
@@ -2,7 +2,6 @@ package me.vaperion.blade.velocity;
 
 import com.velocitypowered.api.proxy.Player;
 import com.velocitypowered.api.proxy.ProxyServer;
-import lombok.RequiredArgsConstructor;
 import me.vaperion.blade.Blade;
 import me.vaperion.blade.Blade.Builder.Binder;
 import me.vaperion.blade.container.ContainerCreator;
@@ -12,12 +11,39 @@ import me.vaperion.blade.platform.TabCompleter;
 import me.vaperion.blade.velocity.argument.PlayerArgument;
 import me.vaperion.blade.velocity.container.VelocityContainer;
 import me.vaperion.blade.velocity.platform.VelocityHelpGenerator;
+import me.vaperion.blade.velocity.platform.VelocityPermissionListener;
+import me.vaperion.blade.velocity.platform.VelocityPlayerIndex;
+import org.jetbrains.annotations.Contract;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
-@RequiredArgsConstructor
 public final class BladeVelocityPlatform implements BladePlatform {
 
     private final ProxyServer proxyServer;
+    private final Object plugin;
+    private boolean brigadierCommands;
+
+    public BladeVelocityPlatform(@NotNull ProxyServer proxyServer) {
+        this(proxyServer, null);
+    }
+
+    /**
+     * @param plugin the plugin instance, used to register the listeners that keep the online player index and the permission cache up to date
+     */
+    public BladeVelocityPlatform(@NotNull ProxyServer proxyServer, @Nullable Object plugin) {
+        this.proxyServer = proxyServer;
+        this.plugin = plugin;
+    }
+
+    /**
+     * Registers the commands as Brigadier trees instead of raw commands, so clients parse and highlight them,
+     * and validate numeric arguments themselves. See {@link VelocityContainer#BRIGADIER_CREATOR}.
+     */
+    @Contract("-> this")
+    public BladeVelocityPlatform useBrigadierCommands() {
+        this.brigadierCommands = true;
+        return this;
+    }
 
     @Override
     public @NotNull Object getPluginInstance() {
@@ -26,7 +52,7 @@ public final class BladeVelocityPlatform implements BladePlatform {
 
     @Override
     public @NotNull ContainerCreator<?> getContainerCreator() {
-        return VelocityContainer.CREATOR;
+        return brigadierCommands ? VelocityContainer.BRIGADIER_CREATOR : VelocityContainer.CREATOR;
     }
 
     @Override
@@ -36,7 +62,9 @@ public final class BladeVelocityPlatform implements BladePlatform {
         configuration.setHelpGenerator(new VelocityHelpGenerator());
         configuration.setTabCompleter(new TabCompleter.Default());
 
+        if (plugin != null) new VelocityPermissionListener(proxyServer, plugin, configuration.getPermissionCache());
+
         Binder binder = new Binder(builder, true);
-        binder.bind(Player.class, new PlayerArgument());
+        binder.bind(Player.class, new PlayerArgument(plugin == null ? null : new VelocityPlayerIndex(proxyServer, plugin).getIndex()));
     }
 }
@@ -2,12 +2,14 @@ package me.vaperion.blade.velocity.argument;
 
 import com.velocitypowered.api.proxy.Player;
 import com.velocitypowered.api.proxy.ProxyServer;
+import lombok.RequiredArgsConstructor;
 import me.vaperion.blade.argument.Argument;
 import me.vaperion.blade.argument.Argument.Type;
 import me.vaperion.blade.argument.ArgumentProvider;
 import me.vaperion.blade.context.Context;
 import me.vaperion.blade.exception.BladeExitMessage;
 import me.vaperion.blade.exception.BladeUsageMessage;
+import me.vaperion.blade.util.NameIndex;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
@@ -16,10 +18,20 @@ import java.util.List;
 import java.util.UUID;
 import java.util.regex.Pattern;
 
+@RequiredArgsConstructor
 public class PlayerArgument implements ArgumentProvider<Player> {
 
     public static final Pattern UUID_PATTERN = Pattern.compile("[0-9a-fA-F]{8}-[0-9a-fA-F]{4}-[34][0-9a-fA-F]{3}-[89ab][0-9a-fA-F]{3}-[0-9a-fA-F]{12}");
 
+    /**
+     * The index of online players, or null if the platform has no plugin to register listeners with.
+     */
+    @Nullable private final NameIndex<Player> playerIndex;
+
+    public PlayerArgument() {
+        this(null);
+    }
+
     @Override
     public @Nullable Player provide(@NotNull Context ctx, @NotNull Argument arg) throws BladeExitMessage {
         ProxyServer proxyServer = (ProxyServer) ctx.blade().getPlatform().getPluginInstance();
@@ -42,6 +54,7 @@ public class PlayerArgument implements ArgumentProvider<Player> {
     @Override
     public @NotNull
     List<String> suggest(@NotNull Context ctx, @NotNull Argument arg) throws BladeExitMessage {
+        if (playerIndex != null) return playerIndex.suggest(arg.getString(), null);
         ProxyServer proxyServer = (ProxyServer) ctx.blade().getPlatform().getPluginInstance();
 
         List<String> completions = new ArrayList<>();
@@ -62,6 +75,7 @@ public class PlayerArgument implements ArgumentProvider<Player> {
     @Nullable
     private Player getPlayer(@NotNull ProxyServer proxyServer, @NotNull String input) {
         if (isUUID(input)) return proxyServer.getPlayer(UUID.fromString(input)).orElse(null);
+        if (playerIndex != null) return playerIndex.get(input);
         return proxyServer.getPlayer(input).orElse(null);
     }
 
@@ -0,0 +1,258 @@
+package me.vaperion.blade.velocity.container;
+
+import com.mojang.brigadier.arguments.ArgumentType;
+import com.mojang.brigadier.arguments.DoubleArgumentType;
+import com.mojang.brigadier.arguments.FloatArgumentType;
+import com.mojang.brigadier.arguments.IntegerArgumentType;
+import com.mojang.brigadier.arguments.LongArgumentType;
+import com.mojang.brigadier.arguments.StringArgumentType;
+import com.mojang.brigadier.builder.LiteralArgumentBuilder;
+import com.mojang.brigadier.builder.RequiredArgumentBuilder;
+import com.mojang.brigadier.context.CommandContext;
+import com.mojang.brigadier.suggestion.Suggestions;
+import com.mojang.brigadier.suggestion.SuggestionProvider;
+import com.mojang.brigadier.suggestion.SuggestionsBuilder;
+import com.mojang.brigadier.tree.LiteralCommandNode;
+import com.velocitypowered.api.command.CommandSource;
+import lombok.RequiredArgsConstructor;
+import me.vaperion.blade.Blade;
+import me.vaperion.blade.argument.ArgumentProvider;
+import me.vaperion.blade.argument.impl.DoubleArgument;
+import me.vaperion.blade.argument.impl.FloatArgument;
+import me.vaperion.blade.argument.impl.IntArgument;
+import me.vaperion.blade.argument.impl.LongArgument;
+import me.vaperion.blade.command.Command;
+import me.vaperion.blade.command.ParsePlan;
+import me.vaperion.blade.command.ParsePlan.Slot;
+import me.vaperion.blade.context.Context;
+import me.vaperion.blade.exception.BladeExitMessage;
+import me.vaperion.blade.service.CommandResolver;
+import me.vaperion.blade.util.CommandLine;
+import me.vaperion.blade.velocity.context.VelocitySender;
+import net.kyori.adventure.text.Component;
+import net.kyori.adventure.text.format.NamedTextColor;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Compiles the commands registered under a base alias into a Brigadier tree: a literal node for every word of the aliases,
+ * followed by an argument node for every parameter, so clients can parse and highlight the commands themselves.
+ * <p>
+ * Only the built-in numeric arguments are typed, without their {@link me.vaperion.blade.annotation.argument.Range} bounds.
+ * The first other argument takes the rest of the line as a greedy string, since Brigadier words only allow a few characters,
+ * and so do commands with flags or quoted arguments. Every node executes through Blade, so Blade still
+ * validates the arguments, except that clients reject non-numeric input for numeric arguments.
+ * <p>
+ * Argument nodes suggest through the providers of the slots they were compiled from, without resolving the command
+ * or testing its permission again, which the {@code requires} predicates of the nodes already did. Numeric arguments
+ * without a custom completer don't suggest anything, so clients don't ask for them. Suggestions are computed on the
+ * async executor of the configuration.
+ */
+@RequiredArgsConstructor
+final class VelocityCommandTree {
+
+    private static final String[] NO_ARGUMENTS = new String[0];
+
+    private final VelocityContainer container;
+
+    @NotNull
+    LiteralCommandNode<CommandSource> build(@NotNull String alias) {
+        Blade blade = container.getBlade();
+        String base = alias.toLowerCase(Locale.ROOT);
+        Node root = new Node(base);
+
+        for (Command command : blade.getAliasToCommands().getOrDefault(alias.toLowerCase(Locale.ROOT), Collections.emptyList())) {
+            for (String commandAlias : command.getAliases()) {
+                String[] words = commandAlias.toLowerCase(Locale.ROOT).split(" ");
+                if (!words[0].equals(base)) continue;
+
+                Node node = root;
+                node.commands.add(command);
+
+                for (int i = 1; i < words.length; i++) {
+                    Node parent = node;
+                    node = node.children.computeIfAbsent(words[i], word -> new Node(parent.path + ' ' + word));
+                    node.commands.add(command);
+                }
+
+                if (node.command == null) node.command = command; // the first registered command wins, like in the resolver
+            }
+        }
+
+        return compile(base, root).build();
+    }
+
+    private LiteralArgumentBuilder<CommandSource> compile(String word, Node node) {
+        LiteralArgumentBuilder<CommandSource> literal = LiteralArgumentBuilder.<CommandSource>literal(word)
+              .requires(source -> canUseAny(source, node.commands))
+              .executes(this::execute);
+
+        for (Map.Entry<String, Node> child : node.children.entrySet()) {
+            literal.then(compile(child.getKey(), child.getValue()));
+        }
+
+        if (node.command != null) {
+            RequiredArgumentBuilder<CommandSource, ?> arguments = compileArguments(node.command, node.path, node.children.keySet());
+            if (arguments != null) literal.then(arguments);
+        }
+
+        return literal;
+    }
+
+    @Nullable
+    private RequiredArgumentBuilder<CommandSource, ?> compileArguments(Command command, String alias, Iterable<String> literals) {
+        ParsePlan plan = command.getParsePlan();
+        int from = CommandResolver.countWords(alias);
+
+        if (command.isContextBased()) {
+            return argument(command, uniqueName("arguments", literals), StringArgumentType.greedyString(), null);
+        }
+
+        if (command.isQuoted() || plan.hasFlags()) {
+            return argument(command, uniqueName("arguments", literals), StringArgumentType.greedyString(),
+                  new Suggester(command, alias, from, null));
+        }
+
+        Slot[] slots = plan.getPositionalSlots();
+        RequiredArgumentBuilder<CommandSource, ?> next = null;
+
+        // the arguments after the first non-numeric one are part of its greedy string
+        int last = 0;
+        while (last < slots.length - 1 && typeOf(slots[last]) != null) last++;
+
+        for (int i = Math.min(last, slots.length - 1); i >= 0; i--) {
+            String name = slots[i].getParameter().getName();
+            ArgumentType<?> type = typeOf(slots[i]);
+            Suggester suggester;
+
+            if (type != null) {
+                suggester = slots[i].getParameter().hasCustomCompleter() ? new Suggester(command, alias, from, slots[i]) : null;
+            } else {
+                type = StringArgumentType.greedyString();
+                // a greedy string holding more than one argument has to be split to find the one being completed
+                suggester = new Suggester(command, alias, from, i == slots.length - 1 ? slots[i] : null);
+            }
+
+            RequiredArgumentBuilder<CommandSource, ?> argument = argument(command, i == 0 ? uniqueName(name, literals) : name, type, suggester);
+
+            if (next != null) argument.then(next);
+            next = argument;
+        }
+
+        return next;
+    }
+
+    private <T> RequiredArgumentBuilder<CommandSource, T> argument(Command command, String name, ArgumentType<T> type,
+                                                                   @Nullable Suggester suggester) {
+        RequiredArgumentBuilder<CommandSource, T> argument = RequiredArgumentBuilder.<CommandSource, T>argument(name, type)
+              .requires(source -> canUse(source, command))
+              .executes(this::execute);
+
+        if (suggester != null) argument.suggests(suggester);
+        return argument;
+    }
+
+    /**
+     * @return the Brigadier type of a built-in numeric argument, or null if the argument is parsed from a greedy string
+     */
+    @Nullable
+    private ArgumentType<?> typeOf(Slot slot) {
+        // ranges are left to Blade, so out of range values get its messages instead of Brigadier's syntax errors
+        ArgumentProvider<?> provider = slot.getProvider();
+        if (slot.isText()) return null;
+
+        if (provider instanceof IntArgument) return IntegerArgumentType.integer();
+        if (provider instanceof LongArgument) return LongArgumentType.longArg();
+        if (provider instanceof DoubleArgument) return DoubleArgumentType.doubleArg();
+        if (provider instanceof FloatArgument) return FloatArgumentType.floatArg();
+        return null;
+    }
+
+    private String uniqueName(String name, Iterable<String> literals) {
+        for (String literal : literals) {
+            if (literal.equals(name)) return uniqueName("<" + name + ">", literals);
+        }
+        return name;
+    }
+
+    private boolean canUseAny(CommandSource source, List<Command> commands) {
+        for (Command command : commands) {
+            if (canUse(source, command)) return true;
+        }
+        return false;
+    }
+
+    private boolean canUse(CommandSource source, Command command) {
+        Blade blade = container.getBlade();
+        Context context = new Context(blade, new VelocitySender(source), command.getAliases()[0], NO_ARGUMENTS);
+        return blade.getPermissionTester().testPermission(context, command);
+    }
+
+    private int execute(CommandContext<CommandSource> context) {
+        String input = context.getInput();
+        int space = input.indexOf(' ');
+
+        container.execute(context.getSource(),
+              space == -1 ? input : input.substring(0, space),
+              space == -1 ? "" : input.substring(space + 1));
+        return com.mojang.brigadier.Command.SINGLE_SUCCESS;
+    }
+
+    /**
+     * Suggests the arguments of a command, through the provider of a single slot, or of the slot the last word of the
+     * line belongs to if the node holds more than one argument.
+     */
+    @RequiredArgsConstructor
+    private final class Suggester implements SuggestionProvider<CommandSource> {
+        private final Command command;
+        private final String alias;
+        private final int from;
+        @Nullable private final Slot slot;
+
+        @Override
+        public CompletableFuture<Suggestions> getSuggestions(CommandContext<CommandSource> context, SuggestionsBuilder builder) {
+            Blade blade = container.getBlade();
+            CommandSource source = context.getSource();
+
+            return CompletableFuture.supplyAsync(() -> {
+                // suggestions always replace the last word, greedy arguments may contain more than one
+                String input = builder.getInput();
+                SuggestionsBuilder offset = builder.createOffset(input.lastIndexOf(' ') + 1);
+
+                String argument = builder.getRemaining();
+                if (slot != null && !slot.isText() && argument.indexOf(' ') != -1) return offset.build(); // past the last argument
+
+                CommandLine line = CommandLine.parseForCompletion(input);
+                Context bladeContext = new Context(blade, new VelocitySender(source), alias, line, Math.min(line.size(), from));
+                List<String> suggestions = new ArrayList<>();
+
+                try {
+                    if (slot != null) blade.getCompleter().suggest(suggestions, bladeContext, command, slot, argument);
+                    else blade.getCompleter().suggest(suggestions, bladeContext, command, line, Math.min(line.size(), from));
+                } catch (BladeExitMessage ex) {
+                    source.sendMessage(Component.text(ex.getMessage()).color(NamedTextColor.RED));
+                }
+
+                suggestions.forEach(offset::suggest);
+                return offset.build();
+            }, blade.getConfiguration().getAsyncExecutor()::accept);
+        }
+    }
+
+    @RequiredArgsConstructor
+    private static final class Node {
+        private final String path;
+        private final Map<String, Node> children = new LinkedHashMap<>();
+        private final List<Command> commands = new ArrayList<>(1);
+        private Command command;
+    }
+
+}
@@ -1,5 +1,6 @@
 package me.vaperion.blade.velocity.container;
 
+import com.velocitypowered.api.command.BrigadierCommand;
 import com.velocitypowered.api.command.CommandManager;
 import com.velocitypowered.api.command.CommandMeta;
 import com.velocitypowered.api.command.CommandSource;
@@ -13,6 +14,12 @@ import me.vaperion.blade.container.ContainerCreator;
 import me.vaperion.blade.context.Context;
 import me.vaperion.blade.exception.BladeExitMessage;
 import me.vaperion.blade.exception.BladeUsageMessage;
+import me.vaperion.blade.metrics.CommandMetrics;
+import me.vaperion.blade.trace.Phase;
+import me.vaperion.blade.trace.Span;
+import me.vaperion.blade.trace.Tracing;
+import me.vaperion.blade.service.CommandResolver;
+import me.vaperion.blade.util.CommandLine;
 import me.vaperion.blade.util.Tuple;
 import me.vaperion.blade.velocity.command.VelocityUsageMessage;
 import me.vaperion.blade.velocity.context.VelocitySender;
@@ -22,33 +29,71 @@ import net.kyori.adventure.text.serializer.legacy.LegacyComponentSerializer;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
-import java.lang.reflect.InvocationTargetException;
 import java.util.*;
-import java.util.stream.Collectors;
 
 @Getter
 public class VelocityContainer implements RawCommand, Container {
 
-    public static final ContainerCreator<VelocityContainer> CREATOR = VelocityContainer::new;
+    /**
+     * Registers the commands as raw commands, which take their arguments as a single string.
+     */
+    public static final ContainerCreator<VelocityContainer> CREATOR = new Creator(false);
+
+    /**
+     * Registers the commands as Brigadier trees, which are sent to clients so they can parse and highlight them.
+     */
+    public static final ContainerCreator<VelocityContainer> BRIGADIER_CREATOR = new Creator(true);
+
     private final Blade blade;
-    private final Command baseCommand;
+    private Command baseCommand;
+    private final String alias;
+    private final boolean brigadier;
 
-    private VelocityContainer(@NotNull Blade blade, @NotNull Command command, @NotNull String alias) throws Exception {
+    private VelocityContainer(@NotNull Blade blade, @NotNull Command command, @NotNull String alias, boolean brigadier) {
         this.blade = blade;
         this.baseCommand = command;
+        this.alias = alias;
+        this.brigadier = brigadier;
+    }
 
-        ProxyServer proxyServer = (ProxyServer) blade.getPlatform().getPluginInstance();
-        CommandManager commandManager = proxyServer.getCommandManager();
+    private void register() {
+        CommandManager commandManager = getCommandManager();
+
+        if (brigadier) {
+            commandManager.register(new BrigadierCommand(new VelocityCommandTree(this).build(alias)));
+            return;
+        }
 
         CommandMeta meta = commandManager.metaBuilder(alias)
-              .aliases(command.getBaseCommands())
+              .aliases(baseCommand.getBaseCommands())
               .build();
         commandManager.register(meta, this);
     }
 
+    @Override
+    public void rebind(@NotNull Command baseCommand) {
+        this.baseCommand = baseCommand;
+    }
+
+    @Override
+    public void refresh() {
+        if (!brigadier) return;
+
+        // Brigadier merges nodes registered under the same literal, so removed commands would stay in the tree
+        CommandManager commandManager = getCommandManager();
+        commandManager.unregister(alias);
+        if (blade.getAliasToCommands().containsKey(alias.toLowerCase(Locale.ROOT)))
+            commandManager.register(new BrigadierCommand(new VelocityCommandTree(this).build(alias)));
+    }
+
+    @NotNull
+    private CommandManager getCommandManager() {
+        return ((ProxyServer) blade.getPlatform().getPluginInstance()).getCommandManager();
+    }
+
     @Nullable
-    private Tuple<Command, String> resolveCommand(@NotNull String[] arguments) throws BladeExitMessage {
-        return blade.getResolver().resolveCommand(arguments);
+    private Tuple<Command, String> resolveCommand(@NotNull CommandLine arguments, @Nullable Context context) throws BladeExitMessage {
+        return blade.getResolver().resolveCommand(arguments, context);
     }
 
     @NotNull
@@ -67,12 +112,33 @@ public class VelocityContainer implements RawCommand, Container {
 
     private void sendUsageMessage(@NotNull Context context, @Nullable Command command) {
         if (command == null) return;
+
+        Span span = Tracing.begin(Phase.MESSAGE);
         command.getUsageMessage().ensureGetOrLoad(() -> new VelocityUsageMessage(command)).sendTo(context);
+        span.finish(context, command.getAliases()[0], false, "success", "usage");
     }
 
-    private boolean hasPermission(@NotNull CommandSource sender, String[] args) throws BladeExitMessage {
-        Tuple<Command, String> command = resolveCommand(joinAliasToArgs(this.baseCommand.getAliases()[0], args));
-        Context context = new Context(blade, new VelocitySender(sender), command == null ? "" : command.getRight(), args);
+    private void invoke(@NotNull Context context, @NotNull Command command, @NotNull String alias, @NotNull Object[] arguments) throws Throwable {
+        Span span = Tracing.begin(Phase.INVOKE);
+        Throwable thrown = null;
+
+        try {
+            command.getInvoker().invoke(arguments);
+        } catch (Throwable t) {
+            thrown = t;
+            throw t;
+        } finally {
+            span.finish(context, alias, command.isAsync(), Tracing.outcomeOf(thrown), null);
+        }
+    }
+
+    private boolean hasPermission(@NotNull CommandSource sender, @NotNull String arguments) throws BladeExitMessage {
+        String baseAlias = this.baseCommand.getAliases()[0];
+        CommandLine line = joinAliasToArgs(baseAlias, arguments, false);
+
+        Tuple<Command, String> command = resolveCommand(line, null);
+        Context context = new Context(blade, new VelocitySender(sender), command == null ? "" : command.getRight(),
+              line, Math.min(line.size(), CommandResolver.countWords(baseAlias)));
         return checkPermission(context, command == null ? null : command.getLeft()).getLeft();
     }
 
@@ -85,40 +151,33 @@ public class VelocityContainer implements RawCommand, Container {
               command.isHidden() ? "" : command.getPermissionMessage());
     }
 
-    private String[] joinAliasToArgs(String alias, String[] args) {
-        String[] aliasParts = alias.split(" ");
-        String[] argsWithAlias = new String[args.length + aliasParts.length];
-        System.arraycopy(aliasParts, 0, argsWithAlias, 0, aliasParts.length);
-        System.arraycopy(args, 0, argsWithAlias, aliasParts.length, args.length);
-        return argsWithAlias;
+    private CommandLine joinAliasToArgs(String alias, String arguments, boolean completion) {
+        String line = arguments.isEmpty() && !completion ? alias : alias + " " + arguments;
+        return completion ? CommandLine.parseForCompletion(line) : CommandLine.parse(line);
     }
 
     @Override
     public boolean hasPermission(Invocation invocation) {
-        return hasPermission(invocation.source(), new String[0]);
+        return hasPermission(invocation.source(), "");
     }
 
     @Override
     public void execute(Invocation invocation) {
-        CommandSource sender = invocation.source();
-        String[] args = invocation.arguments().split(" ");
-        String alias = invocation.alias();
+        execute(invocation.source(), invocation.alias(), invocation.arguments());
+    }
 
+    void execute(@NotNull CommandSource sender, @NotNull String alias, @NotNull String arguments) {
         Command command = null;
         String resolvedAlias;
 
-        String[] joined = joinAliasToArgs(alias, args);
-        Context context = new Context(blade, new VelocitySender(sender), alias, args);
+        CommandLine line = joinAliasToArgs(alias, arguments, false);
+        Context context = new Context(blade, new VelocitySender(sender), alias, line, Math.min(line.size(), CommandResolver.countWords(alias)));
 
         try {
-            Tuple<Command, String> resolved = resolveCommand(joined);
+            Tuple<Command, String> resolved = resolveCommand(line, context);
             if (resolved == null) {
-                List<Command> availableCommands = blade.getCommands()
-                      .stream().filter(c -> Arrays.stream(c.getAliases()).anyMatch(a -> a.toLowerCase().startsWith(alias.toLowerCase(Locale.ROOT) + " ") || a.equalsIgnoreCase(alias)))
-                      .collect(Collectors.toList());
-
-                for (String line : blade.getConfiguration().getHelpGenerator().generate(context, availableCommands)) {
-                    sender.sendMessage(LegacyComponentSerializer.legacyAmpersand().deserialize(line));
+                for (String helpLine : blade.getHelpIndex().generateHelp(context, alias)) {
+                    sender.sendMessage(LegacyComponentSerializer.legacyAmpersand().deserialize(helpLine));
                 }
 
                 return;
@@ -129,7 +188,7 @@ public class VelocityContainer implements RawCommand, Container {
 
             command = resolved.getLeft();
             resolvedAlias = resolved.getRight();
-            int offset = Math.min(args.length, resolvedAlias.split(" ").length - 1);
+            int offset = Math.min(line.size(), CommandResolver.countWords(resolvedAlias));
 
             if (command.isHasSenderParameter() && !command.getSenderType().isInstance(sender))
                 throw new BladeExitMessage("This command can only be executed by " + getSenderType(command.getSenderType()) + ".");
@@ -137,46 +196,41 @@ public class VelocityContainer implements RawCommand, Container {
             final Command finalCommand = command;
             final String finalResolvedAlias = resolvedAlias;
 
-            if (finalCommand.getMethod() == null) {
-                throw new BladeExitMessage("The command " + finalResolvedAlias + " is a root command and cannot be executed.");
-            }
+            blade.getRateLimits().check(context, finalCommand);
+
+            CommandMetrics metrics = blade.getMetrics().get(finalCommand);
+            long submitted = System.nanoTime();
 
             Runnable runnable = () -> {
+                long started = System.nanoTime();
+                if (finalCommand.isAsync()) metrics.recordQueued(started - submitted);
+
                 try {
-                    List<Object> parsed;
+                    Object[] parsed;
                     if (finalCommand.isContextBased()) {
-                        parsed = Collections.singletonList(context);
+                        parsed = new Object[]{context};
                     } else {
-                        parsed = blade.getParser().parseArguments(finalCommand, context, Arrays.copyOfRange(args, offset, args.length));
-                        if (finalCommand.isHasSenderParameter()) parsed.add(0, sender);
+                        parsed = blade.getParser().parseArguments(finalCommand, context, line, offset);
+                        if (finalCommand.isHasSenderParameter()) parsed[0] = sender;
                     }
 
-                    finalCommand.getMethod().invoke(finalCommand.getInstance(), parsed.toArray(new Object[0]));
+                    invoke(context, finalCommand, finalResolvedAlias, parsed);
+                    metrics.recordExecution(System.nanoTime() - started);
                 } catch (BladeUsageMessage ex) {
+                    metrics.recordUsageFailure();
                     sendUsageMessage(context, finalCommand);
                 } catch (BladeExitMessage ex) {
+                    metrics.recordExitMessage();
                     sender.sendMessage(Component.text(ex.getMessage()).color(NamedTextColor.RED));
-                } catch (InvocationTargetException ex) {
-                    if (ex.getTargetException() != null) {
-                        if (ex.getTargetException() instanceof BladeUsageMessage) {
-                            sendUsageMessage(context, finalCommand);
-                            return;
-                        } else if (ex.getTargetException() instanceof BladeExitMessage) {
-                            sender.sendMessage(Component.text(ex.getTargetException().getMessage()).color(NamedTextColor.RED));
-                            return;
-                        }
-                    }
-
-                    ex.printStackTrace();
-                    sender.sendMessage(Component.text("An exception was thrown while executing this command.").color(NamedTextColor.RED));
                 } catch (Throwable t) {
+                    metrics.recordError();
                     t.printStackTrace();
                     sender.sendMessage(Component.text("An exception was thrown while executing this command.").color(NamedTextColor.RED));
                 }
             };
 
             if (command.isAsync()) {
-                blade.getConfiguration().getAsyncExecutor().accept(runnable);
+                blade.getConfiguration().executeAsync(finalCommand, context.sender(), runnable);
             } else {
                 long time = System.nanoTime();
                 runnable.run();
@@ -184,10 +238,9 @@ public class VelocityContainer implements RawCommand, Container {
 
                 if (elapsed >= blade.getConfiguration().getExecutionTimeWarningThreshold()) {
                     System.out.printf(
-                          "[Blade] Command '%s' (%s#%s) took %d milliseconds to execute!%n",
+                          "[Blade] Command '%s' (%s) took %d milliseconds to execute!%n",
                           finalResolvedAlias,
-                          finalCommand.getMethod().getDeclaringClass().getName(),
-                          finalCommand.getMethod().getName(),
+                          finalCommand.getDefinition().getQualifiedName(),
                           elapsed
                     );
                 }
@@ -205,14 +258,14 @@ public class VelocityContainer implements RawCommand, Container {
     @Override
     public List<String> suggest(Invocation invocation) {
         CommandSource sender = invocation.source();
-        String[] args = invocation.arguments().split(" ");
         String alias = invocation.alias();
 
         if (!blade.getConfiguration().getTabCompleter().isDefault()) return Collections.emptyList();
-        if (!hasPermission(sender, args)) return Collections.emptyList();
+        if (!hasPermission(sender, invocation.arguments())) return Collections.emptyList();
 
         try {
-            Tuple<Command, String> resolved = resolveCommand(joinAliasToArgs(alias, args));
+            CommandLine line = joinAliasToArgs(alias, invocation.arguments(), true);
+            Tuple<Command, String> resolved = resolveCommand(line, null);
             if (resolved == null) {
                 // maybe suggest subcommands?
                 return Collections.emptyList();
@@ -221,11 +274,8 @@ public class VelocityContainer implements RawCommand, Container {
             Command command = resolved.getLeft();
             String foundAlias = resolved.getRight();
 
-            List<String> argList = new ArrayList<>(Arrays.asList(args));
-            if (foundAlias.split(" ").length > 1) argList.subList(0, foundAlias.split(" ").length - 1).clear();
-
-            if (argList.isEmpty()) argList.add("");
-            String[] actualArguments = argList.toArray(new String[0]);
+            int from = Math.min(line.size(), CommandResolver.countWords(foundAlias));
+            String[] actualArguments = from < line.size() ? line.toArray(from) : new String[]{""};
 
             Context context = new Context(blade, new VelocitySender(sender), foundAlias, actualArguments);
 
@@ -241,4 +291,31 @@ public class VelocityContainer implements RawCommand, Container {
 
         return Collections.emptyList();
     }
-}
\ No newline at end of file
+
+    private static final class Creator implements ContainerCreator<VelocityContainer> {
+        private final boolean brigadier;
+
+        private Creator(boolean brigadier) {
+            this.brigadier = brigadier;
+        }
+
+        @Override
+        public @NotNull VelocityContainer create(@NotNull Blade blade, @NotNull Command command, @NotNull String alias) {
+            return new VelocityContainer(blade, command, alias, brigadier);
+        }
+
+        // Registered once the batch is published, so the Brigadier trees are built from all of its commands
+        @Override
+        public void commit(@NotNull Blade blade, @NotNull List<Container> containers) {
+            for (Container container : containers) ((VelocityContainer) container).register();
+        }
+
+        @Override
+        public void release(@NotNull Blade blade, @NotNull List<Container> containers) {
+            for (Container container : containers) {
+                VelocityContainer velocityContainer = (VelocityContainer) container;
+                velocityContainer.getCommandManager().unregister(velocityContainer.alias);
+            }
+        }
+    }
+}
@@ -27,6 +27,16 @@ public class VelocitySender implements WrappedSender<CommandSource> {
         return "<unknown>";
     }
 
+    @Override
+    public @NotNull Object getKey() {
+        return commandSource instanceof Player ? ((Player) commandSource).getUniqueId() : getName();
+    }
+
+    @Override
+    public boolean isUniquelyKeyed() {
+        return commandSource instanceof Player || commandSource instanceof ConsoleCommandSource;
+    }
+
     @Override
     public boolean hasPermission(@NotNull String permissionNode) {
         if ("console".equals(permissionNode))
@@ -55,19 +55,15 @@ public class VelocityHelpGenerator implements HelpGenerator {
                 String help = stripColor(result.getUsageMessage().ensureGetOrLoad(() -> new VelocityUsageMessage(result, false)).toString());
                 return "&b - &e" + help + (result.getDescription().isEmpty() ? "" : (" - &7" + result.getDescription()));
             }
-        }.generatePage(commands, parsePage(context.argument(0)));
+        }.generatePage(commands, getPage(context));
     }
 
     private String stripColor(String string) {
         return COLOR_PATTERN.matcher(string).replaceAll("");
     }
 
-    private int parsePage(String argument) {
-        if (argument == null) return 1;
-        try {
-            return Integer.parseInt(argument);
-        } catch (NumberFormatException e) {
-            return 1;
-        }
+    @Override
+    public boolean isCacheable() {
+        return true;
     }
 }
\ No newline at end of file
@@ -0,0 +1,41 @@
+package me.vaperion.blade.velocity.platform;
+
+import com.velocitypowered.api.event.PostOrder;
+import com.velocitypowered.api.event.Subscribe;
+import com.velocitypowered.api.event.connection.DisconnectEvent;
+import com.velocitypowered.api.event.permission.PermissionsSetupEvent;
+import com.velocitypowered.api.event.player.ServerConnectedEvent;
+import com.velocitypowered.api.proxy.Player;
+import com.velocitypowered.api.proxy.ProxyServer;
+import me.vaperion.blade.service.PermissionCache;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Invalidates the cached permission decisions of players when their permissions may change.
+ * Permission plugins usually have their own events, which can call {@link me.vaperion.blade.Blade#invalidatePermissions(Object)}.
+ */
+public final class VelocityPermissionListener {
+
+    private final PermissionCache cache;
+
+    public VelocityPermissionListener(@NotNull ProxyServer proxyServer, @NotNull Object plugin, @NotNull PermissionCache cache) {
+        this.cache = cache;
+        proxyServer.getEventManager().register(plugin, this);
+    }
+
+    @Subscribe(order = PostOrder.LAST)
+    public void onPermissionsSetup(PermissionsSetupEvent event) {
+        if (event.getSubject() instanceof Player) cache.invalidate(((Player) event.getSubject()).getUniqueId());
+    }
+
+    @Subscribe(order = PostOrder.LAST)
+    public void onServerConnected(ServerConnectedEvent event) {
+        cache.invalidate(event.getPlayer().getUniqueId());
+    }
+
+    @Subscribe(order = PostOrder.LAST)
+    public void onDisconnect(DisconnectEvent event) {
+        cache.invalidate(event.getPlayer().getUniqueId());
+    }
+
+}
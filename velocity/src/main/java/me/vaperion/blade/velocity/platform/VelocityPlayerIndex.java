@@ -0,0 +1,38 @@
+package me.vaperion.blade.velocity.platform;
+
+import com.velocitypowered.api.event.PostOrder;
+import com.velocitypowered.api.event.Subscribe;
+import com.velocitypowered.api.event.connection.DisconnectEvent;
+import com.velocitypowered.api.event.connection.PostLoginEvent;
+import com.velocitypowered.api.proxy.Player;
+import com.velocitypowered.api.proxy.ProxyServer;
+import lombok.Getter;
+import me.vaperion.blade.util.NameIndex;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Keeps a {@link NameIndex} of the online players up to date, used by the player argument provider.
+ */
+public final class VelocityPlayerIndex {
+
+    @Getter private final NameIndex<Player> index = new NameIndex<>();
+
+    public VelocityPlayerIndex(@NotNull ProxyServer proxyServer, @NotNull Object plugin) {
+        for (Player player : proxyServer.getAllPlayers()) {
+            index.add(player.getUsername(), player);
+        }
+
+        proxyServer.getEventManager().register(plugin, this);
+    }
+
+    @Subscribe(order = PostOrder.FIRST)
+    public void onLogin(PostLoginEvent event) {
+        index.add(event.getPlayer().getUsername(), event.getPlayer());
+    }
+
+    @Subscribe(order = PostOrder.LAST)
+    public void onDisconnect(DisconnectEvent event) {
+        index.remove(event.getPlayer().getUsername(), event.getPlayer());
+    }
+
+}